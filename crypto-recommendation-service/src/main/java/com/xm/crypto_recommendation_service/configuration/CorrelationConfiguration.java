@@ -0,0 +1,19 @@
+package com.xm.crypto_recommendation_service.configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationKernel;
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrixCalculator;
+
+@Configuration
+public class CorrelationConfiguration {
+
+    @Bean
+    public CorrelationMatrixCalculator correlationMatrixCalculator() {
+        return new CorrelationMatrixCalculator(CorrelationKernel.preferred(), ForkJoinPool.commonPool());
+    }
+
+}
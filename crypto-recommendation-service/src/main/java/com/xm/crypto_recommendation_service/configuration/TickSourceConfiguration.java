@@ -0,0 +1,59 @@
+package com.xm.crypto_recommendation_service.configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.xm.crypto_recommendation_service.repository.CsvTickSource;
+import com.xm.crypto_recommendation_service.repository.LsmTickSource;
+import com.xm.crypto_recommendation_service.repository.MappedTickSource;
+import com.xm.crypto_recommendation_service.repository.SeededTickSource;
+import com.xm.crypto_recommendation_service.repository.TickSource;
+
+/**
+ * Creates the {@link TickSource} selected with the "tick-source.type" property: csv (default), mapped or lsm.
+ * The binary stores are kept in "tick-source.path" and, unless "tick-source.seed" is false,
+ * import a currency from the price files under "storage-path" while they have no ticks of it.
+ */
+@Configuration
+public class TickSourceConfiguration {
+
+    @Value("${storage-path}")
+    private String storagePath;
+
+    @Value("${tick-source.seed:true}")
+    private boolean seed;
+
+    @Bean
+    @ConditionalOnProperty(name = "tick-source.type", havingValue = "csv", matchIfMissing = true)
+    public TickSource csvTickSource() {
+        return csvSource();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tick-source.type", havingValue = "mapped")
+    public TickSource mappedTickSource(@Value("${tick-source.path}") Path path) throws IOException {
+        return seeded(new MappedTickSource(path));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tick-source.type", havingValue = "lsm")
+    public TickSource lsmTickSource(@Value("${tick-source.path}") Path path,
+                                    @Value("${tick-source.lsm.max-runs:8}") int maxRuns) throws IOException {
+        return seeded(new LsmTickSource(path, maxRuns));
+    }
+
+    private TickSource seeded(TickSource tickSource) {
+        return seed ? new SeededTickSource(tickSource, csvSource()) : tickSource;
+    }
+
+    private CsvTickSource csvSource() {
+        return new CsvTickSource(storagePath, ForkJoinPool.commonPool());
+    }
+
+}
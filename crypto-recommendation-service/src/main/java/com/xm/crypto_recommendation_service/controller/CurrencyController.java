@@ -1,15 +1,25 @@
 package com.xm.crypto_recommendation_service.controller;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.CurrencyCorrelation;
 import com.xm.crypto_recommendation_service.model.CurrencyStatistics;
+import com.xm.crypto_recommendation_service.model.DataGeneration;
+import com.xm.crypto_recommendation_service.service.CorrelationService;
 import com.xm.crypto_recommendation_service.service.CurrencyService;
 import com.xm.crypto_recommendation_service.validation.CryptoCurrency;
 
@@ -21,6 +31,8 @@ import lombok.AllArgsConstructor;
 
 /**
  * The CurrencyController class handles API endpoints related to currency statistics.
+ * Every endpoint accepts an optional "asOf" parameter selecting the data generation to answer from:
+ * a generation id, an ISO-8601 timestamp, or "latest" (the default).
  */
 @RestController
 @AllArgsConstructor
@@ -30,53 +42,108 @@ public class CurrencyController {
 
     private final CurrencyService currencyService;
 
+    private final CorrelationService correlationService;
+
     /**
      * Retrieves currency statistics for a given currency symbol.
      *
      * @param currency The currency symbol. Must be a valid crypto currency symbol.
+     * @param asOf The data generation to use.
      * @return The currency statistics object containing the minimum, maximum, oldest, and newest price ticks.
      * @throws IllegalArgumentException if the currency symbol is invalid.
      */
     @Operation(summary = "Find currency statistics by currency symbol")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found currency statistics"),
-            @ApiResponse(responseCode = "403", description = "Invalid crypto currency symbol")
+            @ApiResponse(responseCode = "403", description = "Invalid crypto currency symbol"),
+            @ApiResponse(responseCode = "404", description = "Data generation not found")
     })
     @GetMapping("/{currency}/statistics")
-    public CurrencyStatistics getCurrencyStatistics(@PathVariable @CryptoCurrency String currency) {
-        return currencyService.findStatistics(currency);
+    public CurrencyStatistics getCurrencyStatistics(@PathVariable @CryptoCurrency String currency,
+                                                    @RequestParam(defaultValue = "latest") AsOf asOf) {
+        return currencyService.findStatistics(currency, asOf);
     }
 
     /**
      * Retrieves a list of currencies sorted in descending order by their normalized range.
      *
+     * @param asOf The data generation to use.
      * @return A list of currency symbols sorted by their normalized range in descending order.
      */
     @Operation(summary = "Find currencies sorted descending by normalized range")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found sorted currencies"),
+            @ApiResponse(responseCode = "404", description = "Data generation not found")
     })
     @GetMapping("/sorted-by-normalized-range")
-    public List<String> getCurrenciesSortedByNormalizedRange() {
-        return currencyService.getCurrenciesSortedByNormalizedRangeDesc();
+    public List<String> getCurrenciesSortedByNormalizedRange(@RequestParam(defaultValue = "latest") AsOf asOf) {
+        return currencyService.getCurrenciesSortedByNormalizedRangeDesc(asOf);
     }
 
     /**
      * Retrieves the currency with the highest normalized range for the specified date.
      *
      * @param date The date for which to find the currency with the highest normalized range.
+     * @param zone The time zone in which the date starts and ends, for example Europe/Warsaw. Defaults to UTC.
+     * @param asOf The data generation to use.
      * @return The ResponseEntity object with the currency symbol if found, or a ResponseEntity with status 404 if not found.
      */
     @Operation(summary = "Find currency with highest normalized range for selected day")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Found currency with highest normalized range for selected day"),
+            @ApiResponse(responseCode = "400", description = "Invalid date or time zone"),
             @ApiResponse(responseCode = "404", description = "No currency with highest normalized range found for selected day")
     })
     @GetMapping("/highest-normalized-range/{date}")
-    public ResponseEntity<String> getCurrencyWithHighestNormalizedRangeForDate(@PathVariable LocalDate date) {
-        return currencyService.findCurrencyWithHighestNormalizedRangeForDate(date)
+    public ResponseEntity<String> getCurrencyWithHighestNormalizedRangeForDate(@PathVariable LocalDate date,
+                                                                               @RequestParam(defaultValue = "UTC") ZoneId zone,
+                                                                               @RequestParam(defaultValue = "latest") AsOf asOf) {
+        return currencyService.findCurrencyWithHighestNormalizedRangeForDate(date, zone, asOf)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Retrieves the correlation matrix of currency returns and the volatility of each currency for the specified time range.
+     *
+     * @param from The start of the time range (inclusive), in UTC.
+     * @param to The end of the time range (exclusive), in UTC.
+     * @param interval The length of the interval the prices are aligned to, for example 15m, 1h or 1d.
+     * @param asOf The data generation to use.
+     * @return The ResponseEntity object with the correlation matrix, or a ResponseEntity with status 400 if the time range or interval is invalid.
+     */
+    @Operation(summary = "Find correlation and volatility of currencies for selected time range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Calculated correlation matrix and volatility"),
+            @ApiResponse(responseCode = "400", description = "Invalid time range or interval"),
+            @ApiResponse(responseCode = "404", description = "Data generation not found")
+    })
+    @GetMapping("/correlation")
+    public ResponseEntity<CurrencyCorrelation> getCurrencyCorrelation(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1h") String interval,
+            @RequestParam(defaultValue = "latest") AsOf asOf) {
+        try {
+            Duration duration = DurationStyle.detectAndParse(interval);
+            return ResponseEntity.ok(correlationService.findCorrelation(from, to, duration, asOf));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retrieves the retained data generations that can be selected with the "asOf" parameter.
+     *
+     * @return A list of data generations, oldest first.
+     */
+    @Operation(summary = "Find retained data generations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found data generations"),
+    })
+    @GetMapping("/generations")
+    public List<DataGeneration> getGenerations() {
+        return currencyService.findGenerations();
+    }
+
 }
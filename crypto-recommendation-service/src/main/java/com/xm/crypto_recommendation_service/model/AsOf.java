@@ -0,0 +1,47 @@
+package com.xm.crypto_recommendation_service.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * The AsOf class selects the data generation a query is answered from: the latest one,
+ * a generation by its id, or the generation that was current at a point in time.
+ *
+ * @param generation the generation id, or {@code null}
+ * @param timestamp the point in time, or {@code null}
+ */
+public record AsOf(Long generation, Instant timestamp) {
+
+    public static final AsOf LATEST = new AsOf(null, null);
+
+    /**
+     * Parses a request parameter value. Accepted values are {@code latest}, a generation id,
+     * an ISO-8601 instant or an ISO-8601 local date time in UTC.
+     *
+     * @param value the value to parse
+     * @return the parsed AsOf object
+     * @throws IllegalArgumentException if the value cannot be parsed
+     */
+    public static AsOf valueOf(String value) {
+        if (value == null || value.isBlank() || value.equalsIgnoreCase("latest")) {
+            return LATEST;
+        }
+        if (value.chars().allMatch(Character::isDigit)) {
+            return new AsOf(Long.parseLong(value), null);
+        }
+        try {
+            if (value.endsWith("Z") || value.endsWith("z")) {
+                return new AsOf(null, Instant.parse(value));
+            }
+            return new AsOf(null, LocalDateTime.parse(value).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid generation or timestamp: " + value, e);
+        }
+    }
+
+    public boolean isLatest() {
+        return generation == null && timestamp == null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.xm.crypto_recommendation_service.model;
+
+import java.util.List;
+
+/**
+ * The CurrencyCorrelation class represents the pairwise correlation of currency returns and the volatility of each currency.
+ * The volatility and the rows and columns of the correlation matrix follow the order of the currencies list.
+ */
+public record CurrencyCorrelation(List<String> currencies, double[] volatility, double[][] correlation) { }
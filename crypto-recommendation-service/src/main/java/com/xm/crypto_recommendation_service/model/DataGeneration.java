@@ -0,0 +1,8 @@
+package com.xm.crypto_recommendation_service.model;
+
+import java.time.Instant;
+
+/**
+ * The DataGeneration class represents a published immutable version of the price tick data, including its id and publication time.
+ */
+public record DataGeneration(long id, Instant publishedAt) { }
@@ -0,0 +1,133 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * The BinaryTickFile class reads and writes the binary tick files of {@link MappedTickSource} and {@link LsmTickSource}.
+ * <p>
+ * A file starts with an 8 byte header (magic number and version) followed by fixed-size records of
+ * {@value #RECORD_LENGTH} bytes: the timestamp in milliseconds since the epoch, the unscaled price and
+ * the scale of the price. Files are read by mapping them into memory, so the records are decoded
+ * straight from the page cache without intermediate buffers. A partial record at the end of a file,
+ * left by an interrupted append, is ignored.
+ */
+final class BinaryTickFile {
+
+    private static final int MAGIC = 0x5449434b;
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    static final int RECORD_LENGTH = 20;
+
+    private BinaryTickFile() {
+    }
+
+    /**
+     * Reads all records of a file in any order into a sorted segment.
+     * Of several records with the same timestamp, the last one is kept.
+     *
+     * @param currency the currency of the file
+     * @param file the file to read
+     * @return the sorted segment, empty if the file does not exist
+     * @throws IOException if the file cannot be read or is not a tick file
+     */
+    static TickSegment read(String currency, Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return TickSegment.of(currency, List.of());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                throw new IOException("Truncated tick file header in %s".formatted(file));
+            }
+            if ((size - HEADER_LENGTH) / RECORD_LENGTH > Integer.MAX_VALUE) {
+                throw new IOException("Too many records in %s".formatted(file));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a tick file: %s".formatted(file));
+            }
+
+            int count = (int) ((size - HEADER_LENGTH) / RECORD_LENGTH);
+            long[] timestamps = new long[count];
+            BigDecimal[] prices = new BigDecimal[count];
+            for (int i = 0, offset = HEADER_LENGTH; i < count; i++, offset += RECORD_LENGTH) {
+                timestamps[i] = buffer.getLong(offset);
+                prices[i] = BigDecimal.valueOf(buffer.getLong(offset + 8), buffer.getInt(offset + 16));
+            }
+            return TickSegment.of(currency, timestamps, prices);
+        }
+    }
+
+    /**
+     * Appends the ticks of a segment to a file, creating the file if it does not exist.
+     *
+     * @param file the file to append to
+     * @param segment the ticks to append
+     * @throws IOException if the file cannot be written or a price does not fit into a record
+     */
+    static void append(Path file, TickSegment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size == 0) {
+                writeFully(channel, header(), 0);
+                size = HEADER_LENGTH;
+            }
+            // Overwrite a partial record left by an interrupted append
+            long end = size - (size - HEADER_LENGTH) % RECORD_LENGTH;
+            writeFully(channel, records(segment), end);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Writes the ticks of a segment to a new file. The file is written under a temporary name and
+     * moved into place atomically, so it is either absent or complete.
+     *
+     * @param file the file to write
+     * @param segment the ticks to write
+     * @throws IOException if the file cannot be written or a price does not fit into a record
+     */
+    static void write(Path file, TickSegment segment) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, header(), 0);
+            writeFully(channel, records(segment), HEADER_LENGTH);
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).flip();
+    }
+
+    private static ByteBuffer records(TickSegment segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(segment.size() * RECORD_LENGTH);
+        for (int i = 0; i < segment.size(); i++) {
+            BigDecimal price = segment.price(i);
+            if (price.unscaledValue().bitLength() > 63) {
+                throw new IOException("Price %s does not fit into a tick record".formatted(price));
+            }
+            buffer.putLong(segment.timestamp(i))
+                  .putLong(price.unscaledValue().longValue())
+                  .putInt(price.scale());
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
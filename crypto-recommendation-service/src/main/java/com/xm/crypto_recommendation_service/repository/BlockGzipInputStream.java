@@ -0,0 +1,206 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * The BlockGzipInputStream class decompresses block-compressed gzip (BGZF) data in parallel.
+ * <p>
+ * A block-compressed gzip file is a concatenation of independent gzip members of at most 64 KiB,
+ * each of which stores its own compressed size in a "BC" extra field. This makes it a valid gzip
+ * file, but also allows to find every block without decompressing the previous ones.
+ * <p>
+ * The stream reads compressed blocks sequentially and decompresses up to a fixed number of them
+ * ahead on the given executor, returning the decompressed data in the original order. No more
+ * than that number of blocks is held in memory at a time.
+ */
+public class BlockGzipInputStream extends InputStream {
+
+    static final int HEADER_LENGTH = 18;
+    static final int TRAILER_LENGTH = 8;
+    static final int MAX_BLOCK_SIZE = 0x10000;
+
+    private final InputStream in;
+    private final Executor executor;
+    private final int readAhead;
+    private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+    private final byte[] single = new byte[1];
+
+    private ByteArrayInputStream current = new ByteArrayInputStream(new byte[0]);
+    private boolean endOfInput;
+
+    /**
+     * Creates a stream that decompresses blocks on the given executor.
+     *
+     * @param in the block-compressed gzip data
+     * @param executor the executor to decompress blocks on
+     * @param readAhead the maximum number of blocks decompressed ahead of the reader
+     */
+    public BlockGzipInputStream(InputStream in, Executor executor, int readAhead) {
+        this.in = in;
+        this.executor = executor;
+        this.readAhead = Math.max(readAhead, 1);
+    }
+
+    /**
+     * Checks if the given header starts a block-compressed gzip member.
+     *
+     * @param header the first bytes of the data, at least {@value #HEADER_LENGTH}
+     * @param length the number of valid bytes in the header
+     * @return {@code true} if the data is block-compressed gzip, {@code false} otherwise
+     */
+    static boolean isBlockGzip(byte[] header, int length) {
+        return length >= HEADER_LENGTH
+                && (header[0] & 0xff) == 0x1f && (header[1] & 0xff) == 0x8b && header[2] == 8
+                && (header[3] & 0x04) != 0
+                && unsignedShort(header, 10) == 6
+                && header[12] == 'B' && header[13] == 'C' && unsignedShort(header, 14) == 2;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (current.available() == 0) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        return current.read(buffer, offset, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        pending.forEach(future -> future.cancel(false));
+        pending.clear();
+        in.close();
+    }
+
+    /**
+     * Switches to the next decompressed block, scheduling more blocks for decompression.
+     *
+     * @return {@code true} if there is a next block, {@code false} at the end of the data
+     */
+    private boolean nextBlock() throws IOException {
+        while (!endOfInput && pending.size() < readAhead) {
+            byte[] block = readBlock();
+            if (block == null) {
+                endOfInput = true;
+            } else {
+                pending.add(CompletableFuture.supplyAsync(() -> inflate(block), executor));
+            }
+        }
+        CompletableFuture<byte[]> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            current = new ByteArrayInputStream(next.get());
+            return true;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ioException ? ioException : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Reads the next compressed block, including its header and trailer.
+     *
+     * @return the compressed block, or {@code null} at the end of the data
+     */
+    private byte[] readBlock() throws IOException {
+        byte[] header = in.readNBytes(HEADER_LENGTH);
+        if (header.length == 0) {
+            return null;
+        }
+        if (!isBlockGzip(header, header.length)) {
+            throw new ZipException("Not a block-compressed gzip member");
+        }
+        int blockSize = unsignedShort(header, 16) + 1;
+        if (blockSize < HEADER_LENGTH + TRAILER_LENGTH) {
+            throw new ZipException("Block size %d is below the %d bytes of header and trailer"
+                    .formatted(blockSize, HEADER_LENGTH + TRAILER_LENGTH));
+        }
+        byte[] block = new byte[blockSize];
+        System.arraycopy(header, 0, block, 0, HEADER_LENGTH);
+        if (in.readNBytes(block, HEADER_LENGTH, blockSize - HEADER_LENGTH) < blockSize - HEADER_LENGTH) {
+            throw new EOFException("Truncated block-compressed gzip member");
+        }
+        return block;
+    }
+
+    /**
+     * Decompresses a block and verifies its checksum and size. The size stored in the block is trusted
+     * only up to the {@value #MAX_BLOCK_SIZE} byte limit of block-compressed gzip.
+     *
+     * @param block the compressed block
+     * @return the decompressed data
+     */
+    private static byte[] inflate(byte[] block) {
+        int trailer = block.length - TRAILER_LENGTH;
+        long expectedCrc = unsignedInt(block, trailer);
+        long expectedSize = unsignedInt(block, trailer + 4);
+        if (expectedSize > MAX_BLOCK_SIZE) {
+            throw new CompletionException(new ZipException("Block size %d exceeds %d bytes".formatted(expectedSize, MAX_BLOCK_SIZE)));
+        }
+        byte[] data = new byte[(int) expectedSize];
+
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, HEADER_LENGTH, trailer - HEADER_LENGTH);
+            int size = 0;
+            byte[] excess = new byte[1];
+            while (!inflater.finished()) {
+                // Once the stored size is reached, only the end of the deflate stream may follow
+                int inflated = size < data.length
+                        ? inflater.inflate(data, size, data.length - size)
+                        : inflater.inflate(excess);
+                if (size == data.length && inflated > 0) {
+                    throw new CompletionException(new ZipException("Block inflates beyond its stored size"));
+                }
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                size += inflated;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, size);
+            if (size != data.length || !inflater.finished() || crc.getValue() != expectedCrc) {
+                throw new CompletionException(new ZipException("Corrupt block-compressed gzip member"));
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new CompletionException(new ZipException(e.getMessage()));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    static int unsignedShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    static long unsignedInt(byte[] bytes, int offset) {
+        return unsignedShort(bytes, offset) | (long) unsignedShort(bytes, offset + 2) << 16;
+    }
+}
@@ -0,0 +1,69 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import org.springframework.util.ResourceUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The CsvTickSource class reads price ticks from price files, read with {@link PriceFileReader}.
+ * A currency's file may be plain CSV or compressed, see {@link PriceFileFormat} for the supported formats.
+ * The storage path of the price files may be a directory or a "classpath:" location.
+ * <p>
+ * The source is read-only, appended ticks are kept in memory only.
+ */
+@Slf4j
+public class CsvTickSource implements TickSource {
+
+    private final String storagePath;
+    private final PriceFileReader priceFileReader;
+
+    /**
+     * Creates a source reading the price files in the given storage path.
+     *
+     * @param storagePath the directory or "classpath:" location of the price files
+     * @param executor the executor for block decompression
+     */
+    public CsvTickSource(String storagePath, Executor executor) {
+        this.storagePath = storagePath;
+        this.priceFileReader = new PriceFileReader(executor);
+    }
+
+    @Override
+    public TickSegment read(String currency) throws IOException {
+        for (PriceFileFormat format : PriceFileFormat.values()) {
+            Optional<File> file = findFile(format.fileName(currency));
+            if (file.isPresent()) {
+                return priceFileReader.read(currency, file.get(), format);
+            }
+        }
+        log.warn("No price file found for currency {}", currency);
+        return TickSegment.of(currency, List.of());
+    }
+
+    /**
+     * Finds a file in the storage.
+     *
+     * @param source the name of the file
+     * @return an Optional containing the file, or empty if it does not exist
+     */
+    private Optional<File> findFile(String source) {
+        File file;
+        if (storagePath.startsWith("classpath")) {
+            try {
+                file = ResourceUtils.getFile(storagePath + File.separator + source);
+            } catch (FileNotFoundException e) {
+                return Optional.empty();
+            }
+        } else {
+            file = new File(storagePath, source);
+        }
+        return file.isFile() ? Optional.of(file) : Optional.empty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.xm.crypto_recommendation_service.model.CurrencyStatistics;
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+/**
+ * The CurrencyTicks class holds the immutable price ticks of a single currency together with
+ * their precomputed statistics, so that the minimum, maximum, oldest and newest ticks are
+ * available without scanning.
+ * <p>
+ * The ticks are stored as sorted segments, oldest first. Every append adds a segment, and
+ * {@link TickCompactor} merges them back into one. Until then, a timestamp may occur in several
+ * segments, and the tick of the latest segment supersedes the others. Statistics and queries
+ * skip superseded ticks, so they answer the same before and after compaction.
+ *
+ * @param segments the sorted segments, oldest first
+ * @param statistics the statistics of the price ticks
+ */
+record CurrencyTicks(List<TickSegment> segments, CurrencyStatistics statistics) {
+
+    static final CurrencyTicks EMPTY = new CurrencyTicks(List.of(), new CurrencyStatistics(null, null, null, null));
+
+    /**
+     * Creates currency ticks from a single segment, calculating their statistics.
+     *
+     * @param segment the segment
+     * @return the currency ticks
+     */
+    static CurrencyTicks of(TickSegment segment) {
+        return EMPTY.append(segment);
+    }
+
+    /**
+     * Creates a copy of these currency ticks with the given segment appended.
+     * The statistics are updated incrementally from the appended segment, unless it supersedes
+     * the current minimum or maximum tick, in which case they are recalculated.
+     *
+     * @param segment the segment to append
+     * @return the new currency ticks
+     */
+    CurrencyTicks append(TickSegment segment) {
+        List<TickSegment> appended = new ArrayList<>(segments);
+        appended.add(segment);
+        if (supersedes(segment, statistics.min()) || supersedes(segment, statistics.max())) {
+            return new CurrencyTicks(List.copyOf(appended), calculateStatistics(appended));
+        }
+        return new CurrencyTicks(List.copyOf(appended), updateStatistics(statistics, segment));
+    }
+
+    /**
+     * Creates a copy of these currency ticks with the leading segments replaced by their merge result.
+     * The statistics are recalculated, since the merge may have dropped superseded ticks.
+     *
+     * @param merged the number of leading segments that were merged
+     * @param segment the merge result
+     * @return the new currency ticks
+     */
+    CurrencyTicks replace(int merged, TickSegment segment) {
+        List<TickSegment> replaced = new ArrayList<>();
+        replaced.add(segment);
+        replaced.addAll(segments.subList(merged, segments.size()));
+        return new CurrencyTicks(List.copyOf(replaced), calculateStatistics(replaced));
+    }
+
+    /**
+     * Calculates the total number of ticks in all segments, including superseded ones.
+     *
+     * @return the number of ticks
+     */
+    long size() {
+        return segments.stream().mapToLong(TickSegment::size).sum();
+    }
+
+    /**
+     * Checks if a tick of the given segment is superseded by a tick with the same timestamp in a later segment.
+     *
+     * @param segment the index of the segment of the tick
+     * @param timestamp the timestamp of the tick in milliseconds since the epoch
+     * @return {@code true} if the tick is superseded, {@code false} if it is visible
+     */
+    boolean isSuperseded(int segment, long timestamp) {
+        return isSuperseded(segments, segment, timestamp);
+    }
+
+    /**
+     * Finds the visible tick whose price is preferred by the given order within the given time range.
+     * The time range is located in each sorted segment by binary search.
+     *
+     * @param from the start of the time range in milliseconds since the epoch (inclusive)
+     * @param to the end of the time range in milliseconds since the epoch (exclusive)
+     * @param priceOrder the order in which prices are preferred, the first of equal prices is kept
+     * @return the selected price tick, or {@code null} if there are no ticks in the time range
+     */
+    PriceTick find(long from, long to, Comparator<BigDecimal> priceOrder) {
+        return find(segments, from, to, priceOrder);
+    }
+
+    private static PriceTick find(List<TickSegment> segments, long from, long to, Comparator<BigDecimal> priceOrder) {
+        TickSegment bestSegment = null;
+        int bestIndex = -1;
+        for (int s = 0; s < segments.size(); s++) {
+            TickSegment segment = segments.get(s);
+            for (int i = segment.lowerBound(from), last = segment.lowerBound(to); i < last; i++) {
+                if ((bestSegment == null || priceOrder.compare(segment.price(i), bestSegment.price(bestIndex)) < 0)
+                        && !isSuperseded(segments, s, segment.timestamp(i))) {
+                    bestSegment = segment;
+                    bestIndex = i;
+                }
+            }
+        }
+        return bestSegment == null ? null : bestSegment.priceTick(bestIndex);
+    }
+
+    private static boolean isSuperseded(List<TickSegment> segments, int segment, long timestamp) {
+        for (int later = segment + 1; later < segments.size(); later++) {
+            if (segments.get(later).contains(timestamp)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the given segment contains a tick with the timestamp of the given tick, which it would supersede.
+     */
+    private static boolean supersedes(TickSegment segment, PriceTick priceTick) {
+        return priceTick != null && segment.contains(priceTick.time().toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    /**
+     * Calculates the statistics of the visible ticks of the given segments.
+     */
+    private static CurrencyStatistics calculateStatistics(List<TickSegment> segments) {
+        CurrencyStatistics statistics = EMPTY.statistics();
+        for (TickSegment segment : segments) {
+            statistics = updateStatistics(statistics, segment);
+        }
+        return new CurrencyStatistics(
+                find(segments, Long.MIN_VALUE, Long.MAX_VALUE, Comparator.naturalOrder()),
+                find(segments, Long.MIN_VALUE, Long.MAX_VALUE, Comparator.reverseOrder()),
+                statistics.oldest(),
+                statistics.newest());
+    }
+
+    /**
+     * Updates statistics with the ticks of a later segment, which supersede ticks with equal timestamps.
+     * The minimum and maximum are only correct if the segment does not supersede them.
+     */
+    private static CurrencyStatistics updateStatistics(CurrencyStatistics statistics, TickSegment segment) {
+        if (segment.size() == 0) {
+            return statistics;
+        }
+        int last = segment.size() - 1;
+        int minimum = segment.indexOfMinimum(0, segment.size());
+        int maximum = segment.indexOfMaximum(0, segment.size());
+
+        return new CurrencyStatistics(
+                statistics.min() == null || segment.price(minimum).compareTo(statistics.min().price()) < 0
+                        ? segment.priceTick(minimum) : statistics.min(),
+                statistics.max() == null || segment.price(maximum).compareTo(statistics.max().price()) > 0
+                        ? segment.priceTick(maximum) : statistics.max(),
+                statistics.oldest() == null || !segment.priceTick(0).time().isAfter(statistics.oldest().time())
+                        ? segment.priceTick(0) : statistics.oldest(),
+                statistics.newest() == null || !segment.priceTick(last).time().isBefore(statistics.newest().time())
+                        ? segment.priceTick(last) : statistics.newest());
+    }
+}
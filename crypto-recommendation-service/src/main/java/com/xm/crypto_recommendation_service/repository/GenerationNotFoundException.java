@@ -0,0 +1,20 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import com.xm.crypto_recommendation_service.model.AsOf;
+
+/**
+ * The GenerationNotFoundException is thrown when a requested data generation is not retained anymore or has never existed.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class GenerationNotFoundException extends RuntimeException {
+
+    public GenerationNotFoundException(AsOf asOf) {
+        super(asOf.generation() != null
+                ? "Generation %d is not available".formatted(asOf.generation())
+                : "No generation is available as of %s".formatted(asOf.timestamp()));
+    }
+
+}
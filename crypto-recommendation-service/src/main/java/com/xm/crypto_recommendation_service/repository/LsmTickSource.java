@@ -0,0 +1,114 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The LsmTickSource class is an embedded log-structured merge store of price ticks that needs no external service.
+ * <p>
+ * The ticks of a currency are stored as immutable sorted runs in the directory "&lt;directory&gt;/&lt;currency&gt;",
+ * one binary file per run (see {@link BinaryTickFile}) named by an increasing sequence number. Every append
+ * writes its segment as a new run. Reading a currency merges its runs with a k-way merge, in which the newest
+ * run wins on equal timestamps. When a currency has more than "max-runs" runs, they are compacted into one.
+ * <p>
+ * Runs are written atomically and compaction deletes the merged runs only after their replacement is in place,
+ * so an interrupted append or compaction never loses or resurrects ticks.
+ */
+@Slf4j
+public class LsmTickSource implements TickSource {
+
+    private static final String RUN_SUFFIX = ".run";
+
+    private final Path directory;
+    private final int maxRuns;
+
+    /**
+     * Creates a store in the given directory.
+     *
+     * @param directory the directory of the store, created if it does not exist
+     * @param maxRuns the number of runs per currency above which they are compacted
+     * @throws IOException if the directory cannot be created
+     */
+    public LsmTickSource(Path directory, int maxRuns) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxRuns = Math.max(maxRuns, 1);
+    }
+
+    @Override
+    public synchronized TickSegment read(String currency) throws IOException {
+        return TickSegment.merge(currency, readRuns(currency, runs(currency)));
+    }
+
+    @Override
+    public synchronized void append(String currency, TickSegment segment) throws IOException {
+        if (segment.size() == 0) {
+            return;
+        }
+        Path currencyDirectory = Files.createDirectories(directory.resolve(currency));
+        List<Path> runs = runs(currency);
+        BinaryTickFile.write(currencyDirectory.resolve(runName(nextSequence(runs))), segment);
+
+        runs = runs(currency);
+        if (runs.size() > maxRuns) {
+            compact(currency, runs);
+        }
+    }
+
+    /**
+     * Merges all runs of a currency into a new run and deletes the merged runs.
+     *
+     * @param currency the currency to compact
+     * @param runs the runs of the currency, oldest first
+     */
+    private void compact(String currency, List<Path> runs) throws IOException {
+        TickSegment merged = TickSegment.merge(currency, readRuns(currency, runs));
+        BinaryTickFile.write(directory.resolve(currency).resolve(runName(nextSequence(runs))), merged);
+        for (Path run : runs) {
+            Files.delete(run);
+        }
+        log.debug("Compacted {} runs of currency {} into {} ticks", runs.size(), currency, merged.size());
+    }
+
+    private static List<TickSegment> readRuns(String currency, List<Path> runs) throws IOException {
+        List<TickSegment> segments = new ArrayList<>(runs.size());
+        for (Path run : runs) {
+            segments.add(BinaryTickFile.read(currency, run));
+        }
+        return segments;
+    }
+
+    /**
+     * Lists the runs of a currency.
+     *
+     * @return the run files, oldest first
+     */
+    private List<Path> runs(String currency) throws IOException {
+        Path currencyDirectory = directory.resolve(currency);
+        if (!Files.isDirectory(currencyDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(currencyDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(RUN_SUFFIX))
+                        .sorted()
+                        .toList();
+        }
+    }
+
+    private static long nextSequence(List<Path> runs) {
+        if (runs.isEmpty()) {
+            return 1;
+        }
+        String name = runs.getLast().getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - RUN_SUFFIX.length())) + 1;
+    }
+
+    private static String runName(long sequence) {
+        return "%019d%s".formatted(sequence, RUN_SUFFIX);
+    }
+}
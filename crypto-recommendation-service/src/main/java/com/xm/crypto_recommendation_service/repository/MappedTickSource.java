@@ -0,0 +1,44 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The MappedTickSource class stores the price ticks of every currency in an append-only binary file
+ * "&lt;currency&gt;.ticks" in a directory, see {@link BinaryTickFile} for the format. Files are read by
+ * mapping them into memory, which avoids the text parsing of price files.
+ * <p>
+ * Appends add records to the end of the file, in any order; they are sorted and de-duplicated when
+ * the file is read. Reads and appends are serialized, so a read never maps a partially written record.
+ */
+public class MappedTickSource implements TickSource {
+
+    private final Path directory;
+
+    /**
+     * Creates a source storing the tick files in the given directory.
+     *
+     * @param directory the directory of the tick files, created if it does not exist
+     * @throws IOException if the directory cannot be created
+     */
+    public MappedTickSource(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public synchronized TickSegment read(String currency) throws IOException {
+        return BinaryTickFile.read(currency, file(currency));
+    }
+
+    @Override
+    public synchronized void append(String currency, TickSegment segment) throws IOException {
+        if (segment.size() > 0) {
+            BinaryTickFile.append(file(currency), segment);
+        }
+    }
+
+    private Path file(String currency) {
+        return directory.resolve(currency + ".ticks");
+    }
+}
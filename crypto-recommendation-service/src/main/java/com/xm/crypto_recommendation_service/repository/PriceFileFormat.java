@@ -0,0 +1,82 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+/**
+ * The PriceFileFormat enum lists the supported price file formats, in the order of preference
+ * when several files exist for a currency.
+ */
+public enum PriceFileFormat {
+
+    /**
+     * Plain CSV file.
+     */
+    CSV("%s_values.csv") {
+        @Override
+        InputStream decompress(InputStream in, Executor executor) {
+            return in;
+        }
+    },
+
+    /**
+     * Gzip compressed CSV file. Block-compressed gzip (BGZF) files are decompressed in parallel,
+     * other gzip files sequentially.
+     */
+    GZIP("%s_values.csv.gz") {
+        @Override
+        InputStream decompress(InputStream in, Executor executor) throws IOException {
+            BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+            buffered.mark(BlockGzipInputStream.HEADER_LENGTH);
+            byte[] header = buffered.readNBytes(BlockGzipInputStream.HEADER_LENGTH);
+            buffered.reset();
+            if (BlockGzipInputStream.isBlockGzip(header, header.length)) {
+                return new BlockGzipInputStream(buffered, executor, 2 * Runtime.getRuntime().availableProcessors());
+            }
+            return new GZIPInputStream(buffered, BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Zstandard compressed CSV file, decompressed sequentially.
+     */
+    ZSTD("%s_values.csv.zst") {
+        @Override
+        InputStream decompress(InputStream in, Executor executor) throws IOException {
+            return new ZstdInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String fileNamePattern;
+
+    PriceFileFormat(String fileNamePattern) {
+        this.fileNamePattern = fileNamePattern;
+    }
+
+    /**
+     * Returns the name of the price file of the given currency in this format.
+     *
+     * @param currency the currency
+     * @return the file name
+     */
+    public String fileName(String currency) {
+        return fileNamePattern.formatted(currency);
+    }
+
+    /**
+     * Wraps a stream of a file in this format into a stream of the CSV content.
+     *
+     * @param in the stream of the file
+     * @param executor the executor to decompress blocks on, if the format supports it
+     * @return the stream of the CSV content
+     * @throws IOException if the file header cannot be read
+     */
+    abstract InputStream decompress(InputStream in, Executor executor) throws IOException;
+}
@@ -0,0 +1,81 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+/**
+ * The PriceFileReader class reads the price ticks of a currency from a price file into a sorted segment.
+ * Compressed files are decompressed while they are parsed, without temporary files.
+ * <p>
+ * The CSV content has the following format:
+ * - timestamp: the timestamp of the price tick (long value representing milliseconds since the epoch)
+ * - symbol: the currency symbol
+ * - price: the price of the currency
+ * <p>
+ * The reader uses Apache Commons CSV library for parsing the CSV content.
+ */
+class PriceFileReader {
+
+    private static final String[] CSV_HEADER = {"timestamp", "symbol", "price"};
+
+    private final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader(CSV_HEADER)
+            .setSkipHeaderRecord(true)
+            .build();
+
+    private final Executor executor;
+
+    /**
+     * Creates a reader that decompresses independently compressed blocks on the given executor.
+     *
+     * @param executor the executor for block decompression
+     */
+    PriceFileReader(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Reads the price ticks of the given currency from a file. The rows of the file may be in any order.
+     *
+     * @param currency the currency of the file
+     * @param file the price file
+     * @param format the format of the file
+     * @return the segment with the price ticks
+     * @throws IOException if an error occurs while reading the file
+     */
+    TickSegment read(String currency, File file, PriceFileFormat format) throws IOException {
+        try (FileInputStream in = new FileInputStream(file);
+             Reader reader = new BufferedReader(new InputStreamReader(format.decompress(in, executor), StandardCharsets.UTF_8))) {
+            CSVParser csvRecords = CSV_FORMAT.parse(reader);
+            long[] timestamps = new long[1024];
+            BigDecimal[] prices = new BigDecimal[1024];
+            int size = 0;
+            for (CSVRecord csvRecord : csvRecords) {
+                if (size == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, size * 2);
+                    prices = Arrays.copyOf(prices, size * 2);
+                }
+                timestamps[size] = Long.parseLong(csvRecord.get("timestamp"));
+                prices[size] = new BigDecimal(csvRecord.get("price"));
+                size++;
+            }
+            return TickSegment.of(currency, Arrays.copyOf(timestamps, size), Arrays.copyOf(prices, size));
+        } catch (UncheckedIOException e) {
+            // The CSV parser reports read errors during iteration as unchecked exceptions
+            throw e.getCause();
+        }
+    }
+}
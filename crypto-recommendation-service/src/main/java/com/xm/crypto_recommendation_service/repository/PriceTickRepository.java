@@ -1,217 +1,252 @@
 package com.xm.crypto_recommendation_service.repository;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.math.BigDecimal;
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Comparator;
-import java.util.Optional;
-import java.util.function.Function;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
-
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
-import org.springframework.util.ResourceUtils;
 
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.DataGeneration;
 import com.xm.crypto_recommendation_service.model.PriceTick;
 
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
 /**
  * The PriceTickRepository class is a repository for accessing and querying price tick data.
- * It provides methods for finding the minimum, maximum, newest, and oldest price ticks
- * for a given currency, as well as for a given currency and date.
+ * The data is kept in memory as immutable {@link TickGeneration generations}: every reload or
+ * append publishes a new generation through a single atomic reference swap, so readers never
+ * lock and every query sees one consistent view.
  * <p>
- * It uses a CSV file as the data source, with the following format:
- * - timestamp: the timestamp of the price tick (long value representing milliseconds since the epoch)
- * - symbol: the currency symbol
- * - price: the price of the currency
+ * The most recent generations are retained (configured with the "generations.retained" property),
+ * so that queries can be answered as of an earlier generation or point in time.
  * <p>
- * The repository uses Apache Commons CSV library for reading the CSV file.
- * The storage path of the CSV file is configured using the "storage-path" property.
+ * The price ticks are loaded and appended ticks are persisted through a {@link TickSource},
+ * selected with the "tick-source.type" property.
  *
  */
+@Slf4j
 @Repository
+@RequiredArgsConstructor
 public class PriceTickRepository {
 
-    private static final String[] CSV_HEADER = {"timestamp", "symbol", "price"};
-    private static final String CSV_SOURCE_PATH = "%s_values.csv";
+    private final TickSource tickSource;
+
+    @Value("${currencies}")
+    private String[] currencies;
 
-    @Value("${storage-path}")
-    private String storagePath;
+    @Value("${generations.retained:8}")
+    private int retainedGenerations;
 
-    private final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
-            .setHeader(CSV_HEADER)
-            .setSkipHeaderRecord(true)
-            .build();
+    private final Clock clock = Clock.systemUTC();
 
     /**
-     * Finds the minimum price tick for the given currency.
-     *
-     * @param currency the currency to search for
-     * @return an Optional containing the minimum price tick, or empty if not found
+     * The retained generations, oldest first. The last one is the current generation.
      */
-    public Optional<PriceTick> findMinimum(String currency) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.min(getPriceComparator())
-        );
-    }
+    private final AtomicReference<List<TickGeneration>> generations = new AtomicReference<>(List.of());
 
     /**
-     * Finds the minimum price tick for the given currency and date.
-     *
-     * @param currency the currency to search for
-     * @param date the date to search for
-     * @return an Optional containing the minimum price tick for the given currency and date, or empty if not found
+     * Loads the price ticks of all currencies from the storage and publishes them as a new generation.
+     * Runs on startup and on the schedule configured with the "storage-reload-cron" property, if any.
      */
-    public Optional<PriceTick> findMinimumForDate(String currency, LocalDate date) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.filter(record -> isDateEqual(date, record))
-                                  .min(getPriceComparator())
-        );
+    @PostConstruct
+    @Scheduled(cron = "${storage-reload-cron:-}")
+    public synchronized void reload() {
+        Map<String, CurrencyTicks> loaded = new HashMap<>();
+        for (String currency : currencies) {
+            loaded.put(currency, CurrencyTicks.of(readSegment(currency)));
+        }
+        publish(new TickGeneration(nextGenerationId(), nextPublicationTime(), loaded));
     }
 
     /**
-     * Finds the maximum price tick for the given currency.
+     * Appends the given price ticks and publishes the result as a new generation.
+     * The ticks of every currency are added as a new sorted segment, which is merged with the
+     * existing ones by {@link TickCompactor} later. Ticks may be late or duplicate existing
+     * timestamps; a duplicate supersedes the existing tick once merged.
+     *
+     * The ticks are persisted by the tick source before they are published.
      *
-     * @param currency the currency to search for
-     * @return an Optional containing the maximum price tick, or empty if not found
+     * @param priceTicks the price ticks to append, of any currencies
+     * @throws UncheckedIOException if the tick source fails to persist the ticks
      */
-    public Optional<PriceTick> findMaximum(String currency) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.max(getPriceComparator())
-        );
+    public synchronized void append(Collection<PriceTick> priceTicks) {
+        TickGeneration current = current();
+        Map<String, CurrencyTicks> changed = new HashMap<>();
+        priceTicks.stream()
+                .collect(Collectors.groupingBy(PriceTick::currency))
+                .forEach((currency, ticks) -> {
+                    TickSegment segment = TickSegment.of(currency, ticks);
+                    try {
+                        tickSource.append(currency, segment);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    changed.put(currency, current.currencyTicks(currency).append(segment));
+                });
+        publish(current.with(nextGenerationId(), nextPublicationTime(), changed));
     }
 
     /**
-     * Finds the maximum price tick for the given currency and date.
+     * Replaces leading segments of currencies with their merge results in the current generation.
+     * A merge does not change the logical data, so the compacted generation takes the place of the
+     * current one with the same id and publication time instead of being published as a new generation,
+     * and compaction never pushes older generations out of retention.
+     * A merge result is only applied if the merged segments are still the leading segments of the currency,
+     * so merges computed while the data was reloaded are dropped.
      *
-     * @param currency the currency to search for
-     * @param date the date to search for
-     * @return an Optional containing the maximum price tick for the given currency and date, or empty if not found
+     * @param merges the merges to apply, by currency
+     * @return the applied merges
      */
-    public Optional<PriceTick> findMaximumForDate(String currency, LocalDate date) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.filter(record -> isDateEqual(date, record))
-                                  .max(getPriceComparator())
-        );
+    synchronized List<TickMerge> applyMerges(Map<String, TickMerge> merges) {
+        TickGeneration current = current();
+        Map<String, CurrencyTicks> changed = new HashMap<>();
+        List<TickMerge> applied = new ArrayList<>();
+        merges.forEach((currency, merge) -> {
+            CurrencyTicks currencyTicks = current.currencyTicks(currency);
+            if (merge.mergesLeadingSegmentsOf(currencyTicks)) {
+                changed.put(currency, currencyTicks.replace(merge.inputs().size(), merge.output()));
+                applied.add(merge);
+            }
+        });
+        if (!changed.isEmpty()) {
+            replaceCurrent(current.compacted(changed));
+        }
+        return applied;
     }
 
     /**
-     * Finds the newest price tick for the given currency.
+     * Acquires the generation selected by the given AsOf object. The caller must close the
+     * returned generation when the query is finished.
      *
-     * @param currency the currency to search for
-     * @return an Optional containing the newest price tick, or empty if not found
+     * @param asOf the generation selector
+     * @return the acquired generation
+     * @throws GenerationNotFoundException if no retained generation matches the selector
+     * @throws IllegalStateException if the matching generation is retained but has been freed,
+     *                               which means that a holder closed it more than once
      */
-    public Optional<PriceTick> findNewest(String currency) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.max(getTimestampComparator())
-        );
+    public TickGeneration acquire(AsOf asOf) {
+        while (true) {
+            TickGeneration generation = find(asOf);
+            if (generation.tryAcquire()) {
+                return generation;
+            }
+            if (generations.get().contains(generation)) {
+                throw new IllegalStateException("Generation %d is retained but has been freed".formatted(generation.id()));
+            }
+            // The generation was evicted and freed after it had been found, search again
+        }
     }
 
     /**
-     * Finds the oldest price tick for the given currency.
+     * Retrieves the retained generations, oldest first.
      *
-     * @param currency the currency to search for
-     * @return an Optional containing the oldest price tick, or empty if not found
+     * @return the list of retained generations
      */
-    public Optional<PriceTick> findOldest(String currency) {
-        return findOneByFilter(
-                currency,
-                ticks -> ticks.min(getTimestampComparator())
-        );
+    public List<DataGeneration> findGenerations() {
+        return generations.get().stream()
+                .map(TickGeneration::toDataGeneration)
+                .toList();
     }
 
-    /**
-     * Checks if the given date is equal to the date in the provided PriceTick object.
-     *
-     * @param date The date to compare.
-     * @param priceTick The PriceTick object containing the date to compare against.
-     * @return {@code true} if the dates are equal, {@code false} otherwise.
-     */
-    private boolean isDateEqual(LocalDate date, PriceTick priceTick) {
-        return priceTick.time().toLocalDate().equals(date);
+    private TickGeneration find(AsOf asOf) {
+        List<TickGeneration> retained = generations.get();
+        for (int i = retained.size() - 1; i >= 0; i--) {
+            TickGeneration generation = retained.get(i);
+            if (asOf.isLatest()
+                    || (asOf.generation() != null && asOf.generation() == generation.id())
+                    || (asOf.timestamp() != null && !generation.publishedAt().isAfter(asOf.timestamp()))) {
+                return generation;
+            }
+        }
+        throw new GenerationNotFoundException(asOf);
     }
 
-    private Comparator<PriceTick> getTimestampComparator() {
-        return Comparator.comparing(PriceTick::time);
+    /**
+     * Retrieves the current generation without acquiring it. Only for writers, which are never
+     * concurrent with an eviction of the current generation.
+     */
+    private TickGeneration current() {
+        List<TickGeneration> retained = generations.get();
+        return retained.getLast();
     }
 
-    private Comparator<PriceTick> getPriceComparator() {
-        return Comparator.comparing(PriceTick::price);
+    private long nextGenerationId() {
+        List<TickGeneration> retained = generations.get();
+        return retained.isEmpty() ? 1 : retained.getLast().id() + 1;
     }
 
     /**
-     * Converts a timestamp to a LocalDateTime object using UTC time zone.
-     *
-     * @param timestamp the timestamp to be converted
-     * @return the LocalDateTime object representing the converted timestamp
+     * Returns the current time, or a time just after the current generation was published if the clock has not advanced,
+     * so that every point in time matches at most one generation.
      */
-    private static LocalDateTime mapTimestampToDate(String timestamp) {
-        Instant instant = Instant.ofEpochMilli(Long.parseLong(timestamp));
-        return LocalDateTime.ofInstant(instant, ZoneId.of("UTC"));
+    private Instant nextPublicationTime() {
+        Instant now = clock.instant();
+        List<TickGeneration> retained = generations.get();
+        if (!retained.isEmpty() && !now.isAfter(retained.getLast().publishedAt())) {
+            return retained.getLast().publishedAt().plusNanos(1);
+        }
+        return now;
     }
 
     /**
-     * Finds a single PriceTick object by applying a filter to a stream of PriceTick objects.
+     * Publishes a new current generation and releases the generations that are not retained anymore.
+     * Must be called by a single writer at a time.
      *
-     * @param currency The currency to search for.
-     * @param filter   The filter to apply to the stream of PriceTick objects.
-     * @return Optional containing a PriceTick object if found, otherwise empty.
-     * @throws RuntimeException if an error occurs while reading the file.
+     * @param generation the generation to publish
      */
-    private Optional<PriceTick> findOneByFilter(String currency, Function<Stream<PriceTick>, Optional<PriceTick>> filter) {
-        try(FileReader fileReader = getFileReader(currency)) {
-            CSVParser csvRecords = CSV_FORMAT.parse(fileReader);
-            Stream<PriceTick> priceTickStream = StreamSupport.stream(csvRecords.spliterator(), false)
-                                                             .map(this::mapCSVRecordToPriceTick);
-            return filter.apply(priceTickStream);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    private void publish(TickGeneration generation) {
+        List<TickGeneration> retained = new ArrayList<>(generations.get());
+        retained.add(generation);
+        List<TickGeneration> evicted = new ArrayList<>();
+        while (retained.size() > Math.max(retainedGenerations, 1)) {
+            evicted.add(retained.removeFirst());
         }
+        generations.set(List.copyOf(retained));
+        evicted.forEach(TickGeneration::close);
+        log.debug("Published generation {}, released {}", generation.id(), evicted.size());
     }
 
     /**
-     * Retrieves a FileReader for the specified currency.
+     * Replaces the current generation with an equivalent one and releases the replaced generation.
+     * Readers that acquired the replaced generation keep using it until they close it.
+     * Must be called by a single writer at a time.
      *
-     * @param currency the currency for which to retrieve the FileReader
-     * @return a FileReader object for reading the values of the specified currency
-     * @throws FileNotFoundException if the file for the specified currency is not found
+     * @param generation the generation to take the place of the current one
      */
-    private FileReader getFileReader(String currency) throws FileNotFoundException {
-        String source = CSV_SOURCE_PATH.formatted(currency);
-        File file;
-        if (storagePath.startsWith("classpath")) {
-            file = ResourceUtils.getFile(storagePath + File.separator + source);
-        } else {
-            file = new File(storagePath, source);
-        }
-        return new FileReader(file);
+    private void replaceCurrent(TickGeneration generation) {
+        List<TickGeneration> retained = new ArrayList<>(generations.get());
+        TickGeneration replaced = retained.set(retained.size() - 1, generation);
+        generations.set(List.copyOf(retained));
+        replaced.close();
+        log.debug("Replaced generation {} with its compacted copy", generation.id());
     }
 
     /**
-     * Maps a CSV record to a PriceTick object.
+     * Reads all price ticks of the given currency from the tick source.
      *
-     * @param csvRecord the CSV record to be mapped
-     * @return the mapped PriceTick object
+     * @param currency The currency to read.
+     * @return The segment with the price ticks, empty if the source has none.
+     * @throws UncheckedIOException if an error occurs while reading the ticks.
      */
-    private PriceTick mapCSVRecordToPriceTick(CSVRecord csvRecord) {
-        return new PriceTick(
-                mapTimestampToDate(csvRecord.get("timestamp")),
-                csvRecord.get("symbol"),
-                new BigDecimal(csvRecord.get("price")));
+    private TickSegment readSegment(String currency) {
+        try {
+            return tickSource.read(currency);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 }
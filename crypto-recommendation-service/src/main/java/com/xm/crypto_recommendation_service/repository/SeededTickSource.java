@@ -0,0 +1,46 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The SeededTickSource class imports the price ticks of a currency from a seed source into a target
+ * source the first time the currency is read and the target has no ticks of it, for example to fill
+ * a new binary store from the price files. Afterwards, the target is used alone.
+ */
+@Slf4j
+public class SeededTickSource implements TickSource {
+
+    private final TickSource target;
+    private final TickSource seed;
+
+    /**
+     * Creates a source that reads from and appends to the target, seeded from the seed source.
+     *
+     * @param target the source to read from and append to
+     * @param seed the source to import ticks from
+     */
+    public SeededTickSource(TickSource target, TickSource seed) {
+        this.target = target;
+        this.seed = seed;
+    }
+
+    @Override
+    public TickSegment read(String currency) throws IOException {
+        TickSegment segment = target.read(currency);
+        if (segment.size() == 0) {
+            segment = seed.read(currency);
+            if (segment.size() > 0) {
+                target.append(currency, segment);
+                log.info("Imported {} ticks of currency {}", segment.size(), currency);
+            }
+        }
+        return segment;
+    }
+
+    @Override
+    public void append(String currency, TickSegment segment) throws IOException {
+        target.append(currency, segment);
+    }
+}
@@ -0,0 +1,138 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.xm.crypto_recommendation_service.model.AsOf;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The TickCompactor class merges the segments that appends add to a currency back into a single
+ * sorted and de-duplicated segment in the background. Every pass merges at most
+ * "compaction.max-fan-in" leading segments per currency with a k-way merge, and swaps all
+ * merges of the pass into the current generation, which keeps its id.
+ * <p>
+ * Only {@link PriceTickRepository#append} adds segments, and the service has no ingestion path
+ * that calls it yet, so passes are not scheduled unless the "compaction.cron" property is set.
+ * <p>
+ * Progress and backlog are exposed as metrics:
+ * - ticks.compaction.backlog.segments: segments waiting to be merged
+ * - ticks.compaction.backlog.ticks: ticks in segments waiting to be merged
+ * - ticks.compaction.merges: applied merges
+ * - ticks.compaction.ticks: ticks read by applied merges
+ * - ticks.compaction.duplicates: superseded ticks dropped by applied merges
+ * - ticks.compaction.duration: duration of compaction passes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TickCompactor {
+
+    private final PriceTickRepository priceTickRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${compaction.max-fan-in:8}")
+    private int maxFanIn;
+
+    private Counter mergeCounter;
+    private Counter tickCounter;
+    private Counter duplicateCounter;
+    private Timer durationTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("ticks.compaction.backlog.segments", this, compactor -> compactor.backlog().segments())
+                .description("Segments waiting to be merged")
+                .register(meterRegistry);
+        Gauge.builder("ticks.compaction.backlog.ticks", this, compactor -> compactor.backlog().ticks())
+                .description("Ticks in segments waiting to be merged")
+                .register(meterRegistry);
+        mergeCounter = Counter.builder("ticks.compaction.merges")
+                .description("Applied segment merges")
+                .register(meterRegistry);
+        tickCounter = Counter.builder("ticks.compaction.ticks")
+                .description("Ticks read by applied segment merges")
+                .register(meterRegistry);
+        duplicateCounter = Counter.builder("ticks.compaction.duplicates")
+                .description("Superseded ticks dropped by applied segment merges")
+                .register(meterRegistry);
+        durationTimer = Timer.builder("ticks.compaction.duration")
+                .description("Duration of compaction passes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a compaction pass over all currencies of the current generation.
+     * Runs on the schedule configured with the "compaction.cron" property, if any.
+     */
+    @Scheduled(cron = "${compaction.cron:-}")
+    public void compact() {
+        long start = System.nanoTime();
+
+        Map<String, TickMerge> merges = new HashMap<>();
+        try (TickGeneration generation = priceTickRepository.acquire(AsOf.LATEST)) {
+            for (String currency : generation.currencies()) {
+                List<TickSegment> segments = generation.currencyTicks(currency).segments();
+                if (segments.size() > 1) {
+                    List<TickSegment> inputs = List.copyOf(segments.subList(0, Math.min(segments.size(), Math.max(maxFanIn, 2))));
+                    merges.put(currency, new TickMerge(inputs, TickSegment.merge(currency, inputs)));
+                }
+            }
+        }
+        if (merges.isEmpty()) {
+            return;
+        }
+
+        List<TickMerge> applied = priceTickRepository.applyMerges(merges);
+        for (TickMerge merge : applied) {
+            long inputTicks = merge.inputs().stream().mapToLong(TickSegment::size).sum();
+            mergeCounter.increment();
+            tickCounter.increment(inputTicks);
+            duplicateCounter.increment(inputTicks - merge.output().size());
+        }
+        durationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.debug("Applied {} of {} segment merges", applied.size(), merges.size());
+    }
+
+    /**
+     * Calculates the compaction backlog of the current generation.
+     *
+     * @return the number of segments and ticks waiting to be merged
+     */
+    Backlog backlog() {
+        long segments = 0;
+        long ticks = 0;
+        try (TickGeneration generation = priceTickRepository.acquire(AsOf.LATEST)) {
+            for (String currency : generation.currencies()) {
+                List<TickSegment> currencySegments = generation.currencyTicks(currency).segments();
+                for (int i = 1; i < currencySegments.size(); i++) {
+                    segments++;
+                    ticks += currencySegments.get(i).size();
+                }
+            }
+        }
+        return new Backlog(segments, ticks);
+    }
+
+    /**
+     * The compaction backlog.
+     *
+     * @param segments the number of segments waiting to be merged
+     * @param ticks the number of ticks in segments waiting to be merged
+     */
+    record Backlog(long segments, long ticks) { }
+}
@@ -0,0 +1,302 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.xm.crypto_recommendation_service.model.DataGeneration;
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+/**
+ * The TickGeneration class is an immutable version of the price tick data and its statistics.
+ * Every change of the data publishes a new generation, so a reader that holds a generation
+ * sees one consistent view regardless of concurrent reloads and appends.
+ * <p>
+ * Generations are reference counted. The repository holds one reference while the generation
+ * is retained, and every reader holds one between {@link PriceTickRepository#acquire} and
+ * {@link #close()}. When the last reference is released, the tick data is freed.
+ */
+public class TickGeneration implements AutoCloseable {
+
+    static final int MAX_CACHED_QUERIES = 1024;
+
+    private final long id;
+    private final Instant publishedAt;
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final QueryCache queryCache;
+    private volatile Map<String, CurrencyTicks> currencies;
+
+    TickGeneration(long id, Instant publishedAt, Map<String, CurrencyTicks> currencies) {
+        this(id, publishedAt, currencies, new QueryCache());
+    }
+
+    private TickGeneration(long id, Instant publishedAt, Map<String, CurrencyTicks> currencies, QueryCache queryCache) {
+        this.id = id;
+        this.publishedAt = publishedAt;
+        this.currencies = Map.copyOf(currencies);
+        this.queryCache = queryCache;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public Instant publishedAt() {
+        return publishedAt;
+    }
+
+    public DataGeneration toDataGeneration() {
+        return new DataGeneration(id, publishedAt);
+    }
+
+    /**
+     * Creates the next generation with the ticks of some currencies replaced.
+     * The other currencies share their data with this generation.
+     *
+     * @param id the id of the next generation
+     * @param publishedAt the publication time of the next generation
+     * @param changed the new ticks of the changed currencies
+     * @return the next generation
+     */
+    TickGeneration with(long id, Instant publishedAt, Map<String, CurrencyTicks> changed) {
+        Map<String, CurrencyTicks> next = new HashMap<>(data());
+        next.putAll(changed);
+        return new TickGeneration(id, publishedAt, next);
+    }
+
+    /**
+     * Creates a compacted copy of this generation, with the segments of some currencies replaced by
+     * merge results holding the same visible ticks. The copy keeps the id, publication time and
+     * cached query results of this generation, since its logical data is the same.
+     *
+     * @param compacted the compacted ticks of the changed currencies
+     * @return the compacted generation
+     */
+    TickGeneration compacted(Map<String, CurrencyTicks> compacted) {
+        Map<String, CurrencyTicks> next = new HashMap<>(data());
+        next.putAll(compacted);
+        return new TickGeneration(id, publishedAt, next, queryCache);
+    }
+
+    /**
+     * Retrieves the ticks of the given currency.
+     *
+     * @param currency the currency
+     * @return the ticks of the currency, or empty ticks if there are none
+     */
+    CurrencyTicks currencyTicks(String currency) {
+        return data().getOrDefault(currency, CurrencyTicks.EMPTY);
+    }
+
+    /**
+     * Retrieves the currencies that have ticks in this generation.
+     *
+     * @return the set of currencies
+     */
+    Set<String> currencies() {
+        return data().keySet();
+    }
+
+    /**
+     * Acquires a reference to this generation unless it has already been freed.
+     *
+     * @return {@code true} if the reference was acquired, {@code false} if the generation has been freed
+     */
+    boolean tryAcquire() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Releases a reference to this generation, freeing the tick data when it was the last one.
+     *
+     * @throws IllegalStateException if all references have already been released
+     */
+    @Override
+    public void close() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                throw new IllegalStateException("Generation %d has already been released".formatted(id));
+            }
+        } while (!references.compareAndSet(count, count - 1));
+        if (count == 1) {
+            currencies = null;
+        }
+    }
+
+    /**
+     * Finds the minimum price tick for the given currency.
+     *
+     * @param currency the currency to search for
+     * @return an Optional containing the minimum price tick, or empty if not found
+     */
+    public Optional<PriceTick> findMinimum(String currency) {
+        return Optional.ofNullable(currencyTicks(currency).statistics().min());
+    }
+
+    /**
+     * Finds the minimum price tick for the given currency within the given time range.
+     *
+     * @param currency the currency to search for
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return an Optional containing the minimum price tick within the time range, or empty if not found
+     */
+    public Optional<PriceTick> findMinimumBetween(String currency, Instant from, Instant to) {
+        return findInRange(currency, from, to, Comparator.naturalOrder());
+    }
+
+    /**
+     * Finds the maximum price tick for the given currency.
+     *
+     * @param currency the currency to search for
+     * @return an Optional containing the maximum price tick, or empty if not found
+     */
+    public Optional<PriceTick> findMaximum(String currency) {
+        return Optional.ofNullable(currencyTicks(currency).statistics().max());
+    }
+
+    /**
+     * Finds the maximum price tick for the given currency within the given time range.
+     *
+     * @param currency the currency to search for
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return an Optional containing the maximum price tick within the time range, or empty if not found
+     */
+    public Optional<PriceTick> findMaximumBetween(String currency, Instant from, Instant to) {
+        return findInRange(currency, from, to, Comparator.reverseOrder());
+    }
+
+    /**
+     * Finds the newest price tick for the given currency.
+     *
+     * @param currency the currency to search for
+     * @return an Optional containing the newest price tick, or empty if not found
+     */
+    public Optional<PriceTick> findNewest(String currency) {
+        return Optional.ofNullable(currencyTicks(currency).statistics().newest());
+    }
+
+    /**
+     * Finds the oldest price tick for the given currency.
+     *
+     * @param currency the currency to search for
+     * @return an Optional containing the oldest price tick, or empty if not found
+     */
+    public Optional<PriceTick> findOldest(String currency) {
+        return Optional.ofNullable(currencyTicks(currency).statistics().oldest());
+    }
+
+    /**
+     * Finds all price ticks for the given currency within the given time range.
+     *
+     * @param currency the currency to search for
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return the price ticks within the time range, ordered by time, without ticks superseded by a later segment
+     */
+    public List<PriceTick> findAllBetween(String currency, LocalDateTime from, LocalDateTime to) {
+        long start = from.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long end = to.toInstant(ZoneOffset.UTC).toEpochMilli();
+        CurrencyTicks currencyTicks = currencyTicks(currency);
+        List<TickSegment> segments = currencyTicks.segments();
+        List<PriceTick> result = new ArrayList<>();
+        for (int s = 0; s < segments.size(); s++) {
+            TickSegment segment = segments.get(s);
+            for (int i = segment.lowerBound(start), last = segment.lowerBound(end); i < last; i++) {
+                if (!currencyTicks.isSuperseded(s, segment.timestamp(i))) {
+                    result.add(segment.priceTick(i));
+                }
+            }
+        }
+        if (segments.size() > 1) {
+            result.sort(Comparator.comparing(PriceTick::time));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the result of a query from the cache of this generation, running the query on a miss.
+     * As the generation is immutable, cached results stay valid until the generation is freed, and
+     * newer generations start with an empty cache. At most {@value #MAX_CACHED_QUERIES} results are cached,
+     * evicting the least recently used one. The query runs outside the cache lock, so concurrent misses
+     * of the same key may each run it, and the first stored result wins.
+     *
+     * @param key the key identifying the query and its arguments
+     * @param query the query to run on a cache miss, must not return {@code null}
+     * @return the cached or computed result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T cached(Object key, Supplier<T> query) {
+        T result;
+        synchronized (queryCache) {
+            result = (T) queryCache.get(key);
+        }
+        if (result == null) {
+            result = query.get();
+            synchronized (queryCache) {
+                T previous = (T) queryCache.putIfAbsent(key, result);
+                result = previous != null ? previous : result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the visible price tick whose price is preferred by the given order within the given time range.
+     * Ticks superseded by a later segment are skipped.
+     *
+     * @param currency the currency to search for
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @param priceOrder the order in which prices are preferred
+     * @return an Optional containing the selected price tick, or empty if there are no ticks in the time range
+     */
+    private Optional<PriceTick> findInRange(String currency, Instant from, Instant to, Comparator<BigDecimal> priceOrder) {
+        return Optional.ofNullable(currencyTicks(currency).find(from.toEpochMilli(), to.toEpochMilli(), priceOrder));
+    }
+
+    private Map<String, CurrencyTicks> data() {
+        Map<String, CurrencyTicks> data = currencies;
+        if (data == null) {
+            throw new IllegalStateException("Generation %d has been freed".formatted(id));
+        }
+        return data;
+    }
+
+    /**
+     * The query result cache of a generation, holding the {@value #MAX_CACHED_QUERIES} most recently used results.
+     * It is not thread-safe; callers synchronize on it.
+     */
+    private static class QueryCache extends LinkedHashMap<Object, Object> {
+
+        QueryCache() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    }
+}
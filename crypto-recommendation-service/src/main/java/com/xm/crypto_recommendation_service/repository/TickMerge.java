@@ -0,0 +1,31 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.util.List;
+
+/**
+ * The TickMerge class represents segments of a currency merged by {@link TickCompactor}.
+ *
+ * @param inputs the merged segments, which were the leading segments of the currency
+ * @param output the merge result
+ */
+record TickMerge(List<TickSegment> inputs, TickSegment output) {
+
+    /**
+     * Checks if the inputs of this merge are still the leading segments of the given currency ticks.
+     *
+     * @param currencyTicks the current ticks of the currency
+     * @return {@code true} if the merge can be applied, {@code false} otherwise
+     */
+    boolean mergesLeadingSegmentsOf(CurrencyTicks currencyTicks) {
+        List<TickSegment> segments = currencyTicks.segments();
+        if (segments.size() < inputs.size()) {
+            return false;
+        }
+        for (int i = 0; i < inputs.size(); i++) {
+            if (segments.get(i) != inputs.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
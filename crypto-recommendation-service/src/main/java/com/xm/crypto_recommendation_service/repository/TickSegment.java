@@ -0,0 +1,251 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+/**
+ * The TickSegment class holds immutable price ticks of a single currency as columns sorted by
+ * timestamp, with at most one tick per timestamp. Sorted order lets queries take the oldest and
+ * newest ticks from the ends of a segment and locate time ranges by binary search.
+ * <p>
+ * Segments are the unit of exchange with a {@link TickSource}: implementations outside this package
+ * create them with {@link #of(String, List)} and read them through the index accessors. The column
+ * factory, merging and search operations are internal to the repository.
+ */
+public class TickSegment {
+
+    private final String currency;
+    private final long[] timestamps;
+    private final BigDecimal[] prices;
+
+    private TickSegment(String currency, long[] timestamps, BigDecimal[] prices) {
+        this.currency = currency;
+        this.timestamps = timestamps;
+        this.prices = prices;
+    }
+
+    /**
+     * Creates a segment from price ticks in any order.
+     * Of several ticks with the same timestamp, the last one is kept.
+     *
+     * @param currency the currency of the price ticks
+     * @param priceTicks the price ticks
+     * @return the sorted segment
+     */
+    public static TickSegment of(String currency, List<PriceTick> priceTicks) {
+        long[] timestamps = new long[priceTicks.size()];
+        BigDecimal[] prices = new BigDecimal[priceTicks.size()];
+        for (int i = 0; i < priceTicks.size(); i++) {
+            timestamps[i] = priceTicks.get(i).time().toInstant(ZoneOffset.UTC).toEpochMilli();
+            prices[i] = priceTicks.get(i).price();
+        }
+        return of(currency, timestamps, prices);
+    }
+
+    /**
+     * Creates a segment from timestamp and price columns in any order.
+     * Of several ticks with the same timestamp, the last one is kept.
+     *
+     * @param currency the currency of the price ticks
+     * @param timestamps the timestamps in milliseconds since the epoch
+     * @param prices the prices
+     * @return the sorted segment
+     */
+    static TickSegment of(String currency, long[] timestamps, BigDecimal[] prices) {
+        boolean sorted = true;
+        for (int i = 1; i < timestamps.length && sorted; i++) {
+            sorted = timestamps[i - 1] < timestamps[i];
+        }
+        if (sorted) {
+            return new TickSegment(currency, timestamps, prices);
+        }
+
+        // Stable sort, so that the last of the ticks with equal timestamps stays last
+        Integer[] order = new Integer[timestamps.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingLong(i -> timestamps[i]));
+
+        long[] sortedTimestamps = new long[timestamps.length];
+        BigDecimal[] sortedPrices = new BigDecimal[timestamps.length];
+        int size = 0;
+        for (int index : order) {
+            if (size > 0 && sortedTimestamps[size - 1] == timestamps[index]) {
+                size--;
+            }
+            sortedTimestamps[size] = timestamps[index];
+            sortedPrices[size] = prices[index];
+            size++;
+        }
+        return new TickSegment(currency, Arrays.copyOf(sortedTimestamps, size), Arrays.copyOf(sortedPrices, size));
+    }
+
+    /**
+     * Merges segments of the same currency into one with a k-way merge. Only one cursor per
+     * input segment is held besides the output, so the merge needs no memory beyond the result.
+     * Of several ticks with the same timestamp, the one from the latest segment in the list is kept.
+     *
+     * @param currency the currency of the segments
+     * @param segments the segments to merge, oldest first
+     * @return the merged segment
+     */
+    static TickSegment merge(String currency, List<TickSegment> segments) {
+        int total = segments.stream().mapToInt(TickSegment::size).sum();
+        long[] timestamps = new long[total];
+        BigDecimal[] prices = new BigDecimal[total];
+
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator
+                .comparingLong(Cursor::timestamp)
+                .thenComparing(Cursor::order, Comparator.reverseOrder()));
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).size() > 0) {
+                cursors.add(new Cursor(segments.get(i), i));
+            }
+        }
+
+        int size = 0;
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            long timestamp = cursor.timestamp();
+            if (size == 0 || timestamps[size - 1] != timestamp) {
+                timestamps[size] = timestamp;
+                prices[size] = cursor.price();
+                size++;
+            }
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+
+        if (size < total) {
+            return new TickSegment(currency, Arrays.copyOf(timestamps, size), Arrays.copyOf(prices, size));
+        }
+        return new TickSegment(currency, timestamps, prices);
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * Retrieves the timestamp of the tick at the given index.
+     *
+     * @param index the index of the tick, from 0 (oldest) to {@link #size()} - 1 (newest)
+     * @return the timestamp in milliseconds since the epoch
+     */
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * Retrieves the price of the tick at the given index.
+     *
+     * @param index the index of the tick, from 0 (oldest) to {@link #size()} - 1 (newest)
+     * @return the price
+     */
+    public BigDecimal price(int index) {
+        return prices[index];
+    }
+
+    /**
+     * Materializes the price tick at the given index.
+     *
+     * @param index the index of the tick
+     * @return the price tick with its time in UTC
+     */
+    public PriceTick priceTick(int index) {
+        return new PriceTick(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[index]), ZoneOffset.UTC),
+                currency,
+                prices[index]);
+    }
+
+    /**
+     * Finds the index of the first tick at or after the given timestamp using binary search.
+     *
+     * @param timestamp the timestamp in milliseconds since the epoch
+     * @return the index of the first tick not before the timestamp, or the size of the segment if there is none
+     */
+    int lowerBound(long timestamp) {
+        int index = Arrays.binarySearch(timestamps, timestamp);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Checks if the segment contains a tick with the given timestamp using binary search.
+     *
+     * @param timestamp the timestamp in milliseconds since the epoch
+     * @return {@code true} if there is a tick with the timestamp, {@code false} otherwise
+     */
+    boolean contains(long timestamp) {
+        return Arrays.binarySearch(timestamps, timestamp) >= 0;
+    }
+
+    /**
+     * Finds the index of the tick with the minimum price in the given index range.
+     *
+     * @return the index of the minimum price, or -1 if the range is empty
+     */
+    int indexOfMinimum(int from, int to) {
+        int result = -1;
+        for (int i = from; i < to; i++) {
+            if (result < 0 || prices[i].compareTo(prices[result]) < 0) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the index of the tick with the maximum price in the given index range.
+     *
+     * @return the index of the maximum price, or -1 if the range is empty
+     */
+    int indexOfMaximum(int from, int to) {
+        int result = -1;
+        for (int i = from; i < to; i++) {
+            if (result < 0 || prices[i].compareTo(prices[result]) > 0) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Position of a k-way merge in one of the input segments.
+     */
+    private static final class Cursor {
+
+        private final TickSegment segment;
+        private final int order;
+        private int index;
+
+        private Cursor(TickSegment segment, int order) {
+            this.segment = segment;
+            this.order = order;
+        }
+
+        long timestamp() {
+            return segment.timestamp(index);
+        }
+
+        BigDecimal price() {
+            return segment.price(index);
+        }
+
+        int order() {
+            return order;
+        }
+
+        boolean advance() {
+            return ++index < segment.size();
+        }
+    }
+}
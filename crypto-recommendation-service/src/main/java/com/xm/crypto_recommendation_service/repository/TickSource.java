@@ -0,0 +1,38 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+
+/**
+ * The TickSource interface is the storage backend of the {@link PriceTickRepository}.
+ * The repository serves all queries from memory; a tick source loads the price ticks of a currency
+ * on (re)load and persists the ticks appended at runtime. Ticks are exchanged as {@link TickSegment}s,
+ * so implementations may live outside this package.
+ * <p>
+ * The implementation is selected with the "tick-source.type" property:
+ * - csv: price files under "storage-path", see {@link CsvTickSource}
+ * - mapped: memory-mapped binary files, see {@link MappedTickSource}
+ * - lsm: embedded log-structured store of sorted runs, see {@link LsmTickSource}
+ */
+public interface TickSource {
+
+    /**
+     * Reads all price ticks of the given currency.
+     *
+     * @param currency the currency to read
+     * @return the segment with the price ticks, empty if the source has no ticks of the currency
+     * @throws IOException if an error occurs while reading the ticks
+     */
+    TickSegment read(String currency) throws IOException;
+
+    /**
+     * Persists appended price ticks of the given currency, so that they are read back on the next reload.
+     * Of several ticks with the same timestamp, the most recently appended one is read back.
+     * Read-only sources keep appended ticks in memory only, which is the default.
+     *
+     * @param currency the currency of the price ticks
+     * @param segment the appended price ticks
+     * @throws IOException if an error occurs while writing the ticks
+     */
+    default void append(String currency, TickSegment segment) throws IOException {
+    }
+}
@@ -0,0 +1,94 @@
+package com.xm.crypto_recommendation_service.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.CurrencyCorrelation;
+import com.xm.crypto_recommendation_service.repository.PriceTickRepository;
+import com.xm.crypto_recommendation_service.repository.TickGeneration;
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrix;
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrixCalculator;
+import com.xm.crypto_recommendation_service.service.correlation.TimeGrid;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * The CorrelationService class calculates the correlation of currency returns and the volatility of each currency.
+ */
+@Service
+@AllArgsConstructor
+public class CorrelationService {
+
+    /**
+     * The maximum number of values in the returns buffer (currencies × intervals) and in the correlation matrix
+     * (currencies × currencies) of one request, which bounds its memory to {@value} doubles each.
+     */
+    public static final long MAX_CELLS = 4_000_000;
+
+    @Value("${currencies}")
+    private String[] currencies;
+
+    private final PriceTickRepository priceTickRepository;
+
+    private final CorrelationMatrixCalculator correlationMatrixCalculator;
+
+    /**
+     * Calculates the correlation matrix of log returns and the volatility of all currencies for the given time range.
+     * The prices of each currency are aligned onto a common time grid before the returns are calculated.
+     * Currencies without price ticks in the range or with constant prices are left out of the result.
+     *
+     * @param from The start of the time range (inclusive).
+     * @param to The end of the time range (exclusive).
+     * @param interval The length of the time grid interval.
+     * @param asOf The data generation to use.
+     * @return The correlation matrix and the volatility of the currencies.
+     * @throws IllegalArgumentException if the time range and interval do not form a valid time grid,
+     *                                  or the request would exceed {@value #MAX_CELLS} cells.
+     */
+    public CurrencyCorrelation findCorrelation(LocalDateTime from, LocalDateTime to, Duration interval, AsOf asOf) {
+        TimeGrid timeGrid = TimeGrid.of(from, to, interval);
+        int columns = timeGrid.size() - 1;
+        if ((long) currencies.length * columns > MAX_CELLS || (long) currencies.length * currencies.length > MAX_CELLS) {
+            throw new IllegalArgumentException("%d currencies over %d intervals exceed %d cells, use a longer interval or shorter time range"
+                    .formatted(currencies.length, columns, MAX_CELLS));
+        }
+
+        List<String> included = new ArrayList<>();
+        double[] returns = new double[currencies.length * columns];
+        try (TickGeneration generation = priceTickRepository.acquire(asOf)) {
+            for (String currency : currencies) {
+                double[] prices = timeGrid.align(generation.findAllBetween(currency, from, to));
+                if (prices != null && calculateLogReturns(prices, returns, included.size() * columns)) {
+                    included.add(currency);
+                }
+            }
+        }
+
+        CorrelationMatrix matrix = correlationMatrixCalculator.calculate(returns, included.size(), columns);
+        return new CurrencyCorrelation(included, matrix.volatility(), matrix.correlation());
+    }
+
+    /**
+     * Calculates the log returns between consecutive prices.
+     *
+     * @param prices The prices.
+     * @param returns The array to write the returns to.
+     * @param offset The index of the first return in the array.
+     * @return {@code true} if the returns are not all equal, {@code false} otherwise.
+     */
+    private static boolean calculateLogReturns(double[] prices, double[] returns, int offset) {
+        boolean varying = false;
+        for (int i = 1; i < prices.length; i++) {
+            double value = Math.log(prices[i] / prices[i - 1]);
+            returns[offset + i - 1] = value;
+            varying |= value != returns[offset];
+        }
+        return varying;
+    }
+}
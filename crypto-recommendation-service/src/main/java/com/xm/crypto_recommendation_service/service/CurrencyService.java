@@ -4,7 +4,9 @@ import static java.util.Map.Entry.comparingByValue;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -17,14 +19,18 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.DataGeneration;
 import com.xm.crypto_recommendation_service.model.PriceTick;
 import com.xm.crypto_recommendation_service.model.CurrencyStatistics;
 import com.xm.crypto_recommendation_service.repository.PriceTickRepository;
+import com.xm.crypto_recommendation_service.repository.TickGeneration;
 
 import lombok.AllArgsConstructor;
 
 /**
  * The CurrencyService class is responsible for performing operations related to currency statistics.
+ * Every operation is answered from a single data generation, selected by an {@link AsOf} object.
  */
 @Service
 @AllArgsConstructor
@@ -39,54 +45,79 @@ public class CurrencyService {
      * Retrieves currency statistics for a given currency symbol.
      *
      * @param currency The currency symbol. Must be a valid cryptocurrency symbol.
+     * @param asOf The data generation to use.
      * @return The currency statistics object containing the minimum, maximum, oldest, and newest price ticks.
      */
-    public CurrencyStatistics findStatistics(String currency) {
-        return new CurrencyStatistics(
-                priceTickRepository.findMinimum(currency).orElse(null),
-                priceTickRepository.findMaximum(currency).orElse(null),
-                priceTickRepository.findOldest(currency).orElse(null),
-                priceTickRepository.findNewest(currency).orElse(null)
-        );
+    public CurrencyStatistics findStatistics(String currency, AsOf asOf) {
+        try (TickGeneration generation = priceTickRepository.acquire(asOf)) {
+            return new CurrencyStatistics(
+                    generation.findMinimum(currency).orElse(null),
+                    generation.findMaximum(currency).orElse(null),
+                    generation.findOldest(currency).orElse(null),
+                    generation.findNewest(currency).orElse(null)
+            );
+        }
     }
 
     /**
      * Retrieves a list of currencies sorted in descending order by their normalized range.
      *
+     * @param asOf The data generation to use.
      * @return A list of currency symbols sorted by their normalized range in descending order.
      */
-    public List<String> getCurrenciesSortedByNormalizedRangeDesc() {
-        return Arrays.stream(currencies)
-                .map(currency -> new AbstractMap.SimpleEntry<>(currency, getNormalizedRange(currency)))
-                .filter(entry -> entry.getValue().isPresent())
-                .sorted(Comparator.comparing(entry -> entry.getValue().get(), Comparator.reverseOrder()))
-                .map(Entry::getKey)
-                .collect(Collectors.toList());
+    public List<String> getCurrenciesSortedByNormalizedRangeDesc(AsOf asOf) {
+        try (TickGeneration generation = priceTickRepository.acquire(asOf)) {
+            return Arrays.stream(currencies)
+                    .map(currency -> new AbstractMap.SimpleEntry<>(currency, getNormalizedRange(generation, currency)))
+                    .filter(entry -> entry.getValue().isPresent())
+                    .sorted(Comparator.comparing(entry -> entry.getValue().get(), Comparator.reverseOrder()))
+                    .map(Entry::getKey)
+                    .collect(Collectors.toList());
+        }
     }
 
     /**
-     * Finds the currency with the highest normalized range for the specified date.
+     * Finds the currency with the highest normalized range for the specified date in the specified time zone.
+     * The result is cached per date and time zone in the data generation.
      *
      * @param date The date for which to find the currency with the highest normalized range.
+     * @param zone The time zone in which the date starts and ends.
+     * @param asOf The data generation to use.
      * @return An optional string value representing the currency symbol if found, or an empty optional if not found.
      */
-    public Optional<String> findCurrencyWithHighestNormalizedRangeForDate(LocalDate date) {
-        return Arrays.stream(currencies)
-                .map(currency -> new AbstractMap.SimpleEntry<>(currency, getNormalizedRangeForDate(currency, date)))
-                .filter(entry -> entry.getValue().isPresent())
-                .max(Comparator.comparing(entry -> entry.getValue().get()))
-                .map(Map.Entry::getKey);
+    public Optional<String> findCurrencyWithHighestNormalizedRangeForDate(LocalDate date, ZoneId zone, AsOf asOf) {
+        try (TickGeneration generation = priceTickRepository.acquire(asOf)) {
+            return generation.cached(new HighestNormalizedRangeQuery(date, zone.normalized()), () -> {
+                Instant from = date.atStartOfDay(zone).toInstant();
+                Instant to = date.plusDays(1).atStartOfDay(zone).toInstant();
+                return Arrays.stream(currencies)
+                        .map(currency -> new AbstractMap.SimpleEntry<>(currency, getNormalizedRangeBetween(generation, currency, from, to)))
+                        .filter(entry -> entry.getValue().isPresent())
+                        .max(Comparator.comparing(entry -> entry.getValue().get()))
+                        .map(Map.Entry::getKey);
+            });
+        }
+    }
+
+    /**
+     * Retrieves the retained data generations that can be used in queries.
+     *
+     * @return A list of data generations, oldest first.
+     */
+    public List<DataGeneration> findGenerations() {
+        return priceTickRepository.findGenerations();
     }
 
     /**
      * Retrieves the normalized range for a given currency.
      *
+     * @param generation The data generation to use.
      * @param currency The currency symbol. Must be a valid cryptocurrency symbol.
      * @return An Optional object containing the normalized range if both maximum and minimum price ticks are found, otherwise an empty Optional.
      */
-    private Optional<BigDecimal> getNormalizedRange(String currency) {
-        Optional<PriceTick> maximum = priceTickRepository.findMaximum(currency);
-        Optional<PriceTick> minimum = priceTickRepository.findMinimum(currency);
+    private Optional<BigDecimal> getNormalizedRange(TickGeneration generation, String currency) {
+        Optional<PriceTick> maximum = generation.findMaximum(currency);
+        Optional<PriceTick> minimum = generation.findMinimum(currency);
         if (maximum.isPresent() && minimum.isPresent()) {
             return Optional.of(calculateNormalizedRange(maximum.get(), minimum.get()));
         } else {
@@ -95,15 +126,17 @@ public class CurrencyService {
     }
 
     /**
-     * Retrieves the normalized range for a given currency and date.
+     * Retrieves the normalized range for a given currency and time range.
      *
+     * @param generation The data generation to use.
      * @param currency The currency symbol. Must be a valid cryptocurrency symbol.
-     * @param date The date for which to retrieve the normalized range.
+     * @param from The start of the time range (inclusive).
+     * @param to The end of the time range (exclusive).
      * @return An Optional object containing the normalized range if both maximum and minimum price ticks are found, otherwise an empty Optional.
      */
-    private Optional<BigDecimal> getNormalizedRangeForDate(String currency, LocalDate date) {
-        Optional<PriceTick> maximum = priceTickRepository.findMaximumForDate(currency, date);
-        Optional<PriceTick> minimum = priceTickRepository.findMinimumForDate(currency, date);
+    private Optional<BigDecimal> getNormalizedRangeBetween(TickGeneration generation, String currency, Instant from, Instant to) {
+        Optional<PriceTick> maximum = generation.findMaximumBetween(currency, from, to);
+        Optional<PriceTick> minimum = generation.findMinimumBetween(currency, from, to);
         if (maximum.isPresent() && minimum.isPresent()) {
             return Optional.of(calculateNormalizedRange(maximum.get(), minimum.get()));
         } else {
@@ -125,4 +158,12 @@ public class CurrencyService {
                 .subtract(minimumPrice)
                 .divide(minimumPrice, 2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * The cache key of a query for the currency with the highest normalized range.
+     *
+     * @param date The date of the query.
+     * @param zone The time zone of the query.
+     */
+    private record HighestNormalizedRangeQuery(LocalDate date, ZoneId zone) { }
 }
@@ -0,0 +1,54 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+/**
+ * The CorrelationKernel interface defines the inner loops used to build a correlation matrix.
+ * All methods operate on a slice of a flat row-major array, so that the rows of a matrix
+ * can be processed without copying.
+ */
+public interface CorrelationKernel {
+
+    /**
+     * Subtracts the mean from every element of the slice.
+     *
+     * @param data the array containing the slice
+     * @param offset the index of the first element of the slice
+     * @param length the number of elements in the slice
+     * @return the sum of squared deviations from the mean
+     */
+    double center(double[] data, int offset, int length);
+
+    /**
+     * Multiplies every element of the slice by the given factor.
+     *
+     * @param data the array containing the slice
+     * @param offset the index of the first element of the slice
+     * @param length the number of elements in the slice
+     * @param factor the factor to multiply by
+     */
+    void scale(double[] data, int offset, int length, double factor);
+
+    /**
+     * Calculates the dot product of two slices of the same array.
+     *
+     * @param data the array containing both slices
+     * @param firstOffset the index of the first element of the first slice
+     * @param secondOffset the index of the first element of the second slice
+     * @param length the number of elements in each slice
+     * @return the dot product of the two slices
+     */
+    double dot(double[] data, int firstOffset, int secondOffset, int length);
+
+    /**
+     * Returns the fastest kernel available in the running JVM.
+     * The vectorized kernel is used when the {@code jdk.incubator.vector} module is resolved
+     * (started with {@code --add-modules jdk.incubator.vector}), otherwise the scalar one.
+     *
+     * @return the preferred correlation kernel
+     */
+    static CorrelationKernel preferred() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorCorrelationKernel();
+        }
+        return new ScalarCorrelationKernel();
+    }
+}
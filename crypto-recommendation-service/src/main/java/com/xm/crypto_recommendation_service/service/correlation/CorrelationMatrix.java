@@ -0,0 +1,7 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+/**
+ * The CorrelationMatrix class holds the result of {@link CorrelationMatrixCalculator}:
+ * the volatility of every row and the pairwise correlation of all rows.
+ */
+public record CorrelationMatrix(double[] volatility, double[][] correlation) { }
@@ -0,0 +1,130 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * The CorrelationMatrixCalculator class calculates the Pearson correlation matrix and the
+ * volatility (sample standard deviation) of the rows of a flat row-major matrix.
+ * <p>
+ * Every row is first centered and scaled to unit length, so that the correlation of two rows
+ * is their dot product. The upper triangle of the result is split into tiles of
+ * {@value #ROW_BLOCK} x {@value #ROW_BLOCK} rows, and each tile walks the columns in blocks of
+ * {@value #COLUMN_BLOCK}, so that the row slices of a tile stay in cache while they are reused.
+ * Tiles are independent and are calculated in parallel on a {@link ForkJoinPool}.
+ */
+public class CorrelationMatrixCalculator {
+
+    static final int ROW_BLOCK = 32;
+    static final int COLUMN_BLOCK = 512;
+
+    private final CorrelationKernel kernel;
+    private final ForkJoinPool forkJoinPool;
+
+    public CorrelationMatrixCalculator(CorrelationKernel kernel, ForkJoinPool forkJoinPool) {
+        this.kernel = kernel;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Calculates the correlation matrix and the volatility of the given rows.
+     * Rows with zero variance have zero volatility and zero correlation with every other row.
+     *
+     * @param data the row-major matrix; it is overwritten with the standardized rows
+     * @param rows the number of rows
+     * @param columns the number of columns, must be at least 2
+     * @return the volatility of every row and the correlation matrix
+     */
+    public CorrelationMatrix calculate(double[] data, int rows, int columns) {
+        if (columns < 2) {
+            throw new IllegalArgumentException("At least 2 columns are required, got " + columns);
+        }
+        if (data.length < rows * columns) {
+            throw new IllegalArgumentException("Data has %d elements, expected %d".formatted(data.length, rows * columns));
+        }
+
+        double[] volatility = new double[rows];
+        forkJoinPool.invoke(new RangeAction(0, rows, row -> {
+            double squares = kernel.center(data, row * columns, columns);
+            volatility[row] = Math.sqrt(squares / (columns - 1));
+            kernel.scale(data, row * columns, columns, squares > 0 ? 1 / Math.sqrt(squares) : 0);
+        }));
+
+        double[][] correlation = new double[rows][rows];
+        int blocks = (rows + ROW_BLOCK - 1) / ROW_BLOCK;
+        int tiles = blocks * (blocks + 1) / 2;
+        int[] firstBlocks = new int[tiles];
+        int[] secondBlocks = new int[tiles];
+        for (int first = 0, tile = 0; first < blocks; first++) {
+            for (int second = first; second < blocks; second++, tile++) {
+                firstBlocks[tile] = first;
+                secondBlocks[tile] = second;
+            }
+        }
+        forkJoinPool.invoke(new RangeAction(0, tiles,
+                tile -> calculateTile(data, rows, columns, firstBlocks[tile], secondBlocks[tile], volatility, correlation)));
+
+        return new CorrelationMatrix(volatility, correlation);
+    }
+
+    /**
+     * Calculates the correlations between the rows of two row blocks and mirrors them into the lower triangle.
+     */
+    private void calculateTile(double[] data, int rows, int columns, int firstBlock, int secondBlock,
+                               double[] volatility, double[][] correlation) {
+        int firstStart = firstBlock * ROW_BLOCK;
+        int firstEnd = Math.min(firstStart + ROW_BLOCK, rows);
+        int secondStart = secondBlock * ROW_BLOCK;
+        int secondEnd = Math.min(secondStart + ROW_BLOCK, rows);
+
+        for (int column = 0; column < columns; column += COLUMN_BLOCK) {
+            int length = Math.min(COLUMN_BLOCK, columns - column);
+            for (int i = firstStart; i < firstEnd; i++) {
+                double[] correlationRow = correlation[i];
+                for (int j = Math.max(i + 1, secondStart); j < secondEnd; j++) {
+                    correlationRow[j] += kernel.dot(data, i * columns + column, j * columns + column, length);
+                }
+            }
+        }
+
+        for (int i = firstStart; i < firstEnd; i++) {
+            if (firstBlock == secondBlock) {
+                correlation[i][i] = volatility[i] > 0 ? 1 : 0;
+            }
+            for (int j = Math.max(i + 1, secondStart); j < secondEnd; j++) {
+                double value = Math.clamp(correlation[i][j], -1.0, 1.0);
+                correlation[i][j] = value;
+                correlation[j][i] = value;
+            }
+        }
+    }
+
+    /**
+     * Fork-join action that splits a range of indexes in halves until single indexes remain.
+     */
+    private static class RangeAction extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        RangeAction(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    action.accept(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, action), new RangeAction(middle, to, action));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+/**
+ * The ScalarCorrelationKernel class is a plain loop implementation of {@link CorrelationKernel}.
+ * It is used when the Vector API is not available and as a reference for the vectorized kernel.
+ */
+public class ScalarCorrelationKernel implements CorrelationKernel {
+
+    @Override
+    public double center(double[] data, int offset, int length) {
+        double sum = 0;
+        for (int i = offset; i < offset + length; i++) {
+            sum += data[i];
+        }
+        double mean = sum / length;
+        double squares = 0;
+        for (int i = offset; i < offset + length; i++) {
+            double deviation = data[i] - mean;
+            data[i] = deviation;
+            squares += deviation * deviation;
+        }
+        return squares;
+    }
+
+    @Override
+    public void scale(double[] data, int offset, int length, double factor) {
+        for (int i = offset; i < offset + length; i++) {
+            data[i] *= factor;
+        }
+    }
+
+    @Override
+    public double dot(double[] data, int firstOffset, int secondOffset, int length) {
+        double sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += data[firstOffset + i] * data[secondOffset + i];
+        }
+        return sum;
+    }
+}
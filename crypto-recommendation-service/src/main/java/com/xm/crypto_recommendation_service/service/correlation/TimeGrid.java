@@ -0,0 +1,96 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+/**
+ * The TimeGrid class represents a sequence of equal time intervals used to align price ticks
+ * of different currencies, which are not recorded at the same moments.
+ *
+ * @param start the start of the first interval in milliseconds since the epoch
+ * @param step the length of an interval in milliseconds
+ * @param size the number of intervals
+ */
+public record TimeGrid(long start, long step, int size) {
+
+    /**
+     * The maximum number of intervals in a grid.
+     */
+    public static final int MAX_SIZE = 100_000;
+
+    /**
+     * The minimum length of an interval, the resolution of price tick timestamps.
+     */
+    public static final Duration MIN_INTERVAL = Duration.ofMillis(1);
+
+    /**
+     * Creates a grid covering the time range from (inclusive) to (exclusive) with the given interval.
+     *
+     * @param from the start of the range, in UTC
+     * @param to the end of the range, in UTC
+     * @param interval the length of an interval, at least 1 ms; fractions of a millisecond are truncated
+     * @return the time grid
+     * @throws IllegalArgumentException if the range or interval is invalid, or the grid has less than 3 or more than {@value #MAX_SIZE} intervals
+     */
+    public static TimeGrid of(LocalDateTime from, LocalDateTime to, Duration interval) {
+        if (interval.compareTo(MIN_INTERVAL) < 0) {
+            throw new IllegalArgumentException("Interval must be at least %d ms".formatted(MIN_INTERVAL.toMillis()));
+        }
+        if (interval.compareTo(Duration.between(from, to)) > 0) {
+            throw new IllegalArgumentException("Time range must contain from 3 to %d intervals".formatted(MAX_SIZE));
+        }
+        long start = toEpochMilli(from);
+        long end = toEpochMilli(to);
+        long step = interval.toMillis();
+        long size = (end - start + step - 1) / step;
+        if (end <= start || size < 3 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Time range must contain from 3 to %d intervals".formatted(MAX_SIZE));
+        }
+        return new TimeGrid(start, step, (int) size);
+    }
+
+    /**
+     * Aligns price ticks onto the grid. The price of an interval is the price of the latest tick in it.
+     * Intervals without ticks take the price of the previous interval, and leading intervals the price of the first one.
+     *
+     * @param priceTicks the price ticks in any order; ticks outside the grid are ignored
+     * @return the price of every interval, or {@code null} if no tick falls into the grid
+     */
+    public double[] align(Collection<PriceTick> priceTicks) {
+        double[] prices = new double[size];
+        long[] times = new long[size];
+        Arrays.fill(times, Long.MIN_VALUE);
+
+        int first = size;
+        for (PriceTick priceTick : priceTicks) {
+            long time = toEpochMilli(priceTick.time());
+            long index = Math.floorDiv(time - start, step);
+            if (index < 0 || index >= size || time < times[(int) index]) {
+                continue;
+            }
+            times[(int) index] = time;
+            prices[(int) index] = priceTick.price().doubleValue();
+            first = Math.min(first, (int) index);
+        }
+        if (first == size) {
+            return null;
+        }
+
+        Arrays.fill(prices, 0, first, prices[first]);
+        for (int i = first + 1; i < size; i++) {
+            if (times[i] == Long.MIN_VALUE) {
+                prices[i] = prices[i - 1];
+            }
+        }
+        return prices;
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -0,0 +1,78 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The VectorCorrelationKernel class implements {@link CorrelationKernel} with the
+ * {@code jdk.incubator.vector} API, using the widest double species supported by the CPU.
+ * The tail of each slice that does not fill a whole vector is processed with scalar code.
+ */
+public class VectorCorrelationKernel implements CorrelationKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double center(double[] data, int offset, int length) {
+        int upperBound = SPECIES.loopBound(length);
+
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            sums = sums.add(DoubleVector.fromArray(SPECIES, data, offset + i));
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += data[offset + i];
+        }
+
+        double mean = sum / length;
+        DoubleVector means = DoubleVector.broadcast(SPECIES, mean);
+        DoubleVector squares = DoubleVector.zero(SPECIES);
+        i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector deviations = DoubleVector.fromArray(SPECIES, data, offset + i).sub(means);
+            deviations.intoArray(data, offset + i);
+            squares = deviations.fma(deviations, squares);
+        }
+        double sumOfSquares = squares.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double deviation = data[offset + i] - mean;
+            data[offset + i] = deviation;
+            sumOfSquares += deviation * deviation;
+        }
+        return sumOfSquares;
+    }
+
+    @Override
+    public void scale(double[] data, int offset, int length, double factor) {
+        int upperBound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, data, offset + i)
+                        .mul(factor)
+                        .intoArray(data, offset + i);
+        }
+        for (; i < length; i++) {
+            data[offset + i] *= factor;
+        }
+    }
+
+    @Override
+    public double dot(double[] data, int firstOffset, int secondOffset, int length) {
+        int upperBound = SPECIES.loopBound(length);
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector first = DoubleVector.fromArray(SPECIES, data, firstOffset + i);
+            DoubleVector second = DoubleVector.fromArray(SPECIES, data, secondOffset + i);
+            sums = first.fma(second, sums);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += data[firstOffset + i] * data[secondOffset + i];
+        }
+        return sum;
+    }
+}
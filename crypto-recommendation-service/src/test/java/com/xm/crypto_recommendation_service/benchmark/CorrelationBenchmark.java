@@ -0,0 +1,80 @@
+package com.xm.crypto_recommendation_service.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrix;
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrixCalculator;
+import com.xm.crypto_recommendation_service.service.correlation.ScalarCorrelationKernel;
+import com.xm.crypto_recommendation_service.service.correlation.VectorCorrelationKernel;
+
+/**
+ * Compares the scalar and the vectorized correlation kernels.
+ * Run the main method from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CorrelationBenchmark {
+
+    @Param({"100", "1000"})
+    private int currencies;
+
+    @Param({"720", "8760"})
+    private int intervals;
+
+    private double[] returns;
+    private double[] data;
+
+    private final CorrelationMatrixCalculator scalarCalculator =
+            new CorrelationMatrixCalculator(new ScalarCorrelationKernel(), ForkJoinPool.commonPool());
+    private final CorrelationMatrixCalculator vectorCalculator =
+            new CorrelationMatrixCalculator(new VectorCorrelationKernel(), ForkJoinPool.commonPool());
+
+    @Setup(Level.Trial)
+    public void generateReturns() {
+        returns = new Random(42).doubles((long) currencies * intervals, -0.05, 0.05).toArray();
+    }
+
+    @Setup(Level.Invocation)
+    public void copyReturns() {
+        data = returns.clone();
+    }
+
+    @Benchmark
+    public CorrelationMatrix scalar() {
+        return scalarCalculator.calculate(data, currencies, intervals);
+    }
+
+    @Benchmark
+    public CorrelationMatrix vector() {
+        return vectorCalculator.calculate(data, currencies, intervals);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CorrelationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
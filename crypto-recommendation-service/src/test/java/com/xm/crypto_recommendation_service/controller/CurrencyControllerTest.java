@@ -8,7 +8,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,7 +26,10 @@ import org.springframework.test.web.servlet.MvcResult;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.CurrencyCorrelation;
 import com.xm.crypto_recommendation_service.model.CurrencyStatistics;
+import com.xm.crypto_recommendation_service.service.CorrelationService;
 import com.xm.crypto_recommendation_service.service.CurrencyService;
 
 @SpringBootTest
@@ -39,11 +45,14 @@ class CurrencyControllerTest {
     @MockBean
     private CurrencyService currencyService;
 
+    @MockBean
+    private CorrelationService correlationService;
+
     @Test
     void getCurrencyStatistics_validPayload_returnedStatistics() throws Exception {
 
         CurrencyStatistics expected = new CurrencyStatistics(null, null, null, null);
-        when(currencyService.findStatistics("BTC")).thenReturn(expected);
+        when(currencyService.findStatistics("BTC", AsOf.LATEST)).thenReturn(expected);
 
         MvcResult result = mockMvc.perform(get("/currency/BTC/statistics"))
                                   .andExpect(status().isOk())
@@ -61,11 +70,26 @@ class CurrencyControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getCurrencyStatistics_generationSelected_returnedStatistics() throws Exception {
+        CurrencyStatistics expected = new CurrencyStatistics(null, null, null, null);
+        when(currencyService.findStatistics("BTC", new AsOf(3L, null))).thenReturn(expected);
+
+        mockMvc.perform(get("/currency/BTC/statistics").param("asOf", "3"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getCurrencyStatistics_invalidAsOf_statusBadRequest() throws Exception {
+        mockMvc.perform(get("/currency/BTC/statistics").param("asOf", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getCurrenciesSortedByNormalizedRange_returnedSortedCurrencies() throws Exception {
         List<String> expected = List.of("ETH", "BTC", "LTC");
 
-        when(currencyService.getCurrenciesSortedByNormalizedRangeDesc()).thenReturn(expected);
+        when(currencyService.getCurrenciesSortedByNormalizedRangeDesc(AsOf.LATEST)).thenReturn(expected);
 
         MvcResult result = mockMvc.perform(get("/currency/sorted-by-normalized-range"))
                 .andExpect(status().isOk())
@@ -79,7 +103,7 @@ class CurrencyControllerTest {
 
     @Test
     void getCurrencyWithHighestNormalizedRangeForDate_returnedCurrencyWithHighestRange() throws Exception {
-        when(currencyService.findCurrencyWithHighestNormalizedRangeForDate(LocalDate.of(2022, 1, 1)))
+        when(currencyService.findCurrencyWithHighestNormalizedRangeForDate(LocalDate.of(2022, 1, 1), ZoneId.of("UTC"), AsOf.LATEST))
                 .thenReturn(Optional.of("BTC"));
         mockMvc.perform(get("/currency/highest-normalized-range/2022-01-01"))
                 .andExpect(status().isOk())
@@ -87,11 +111,60 @@ class CurrencyControllerTest {
                 .andExpect(content().string(containsString("BTC")));
     }
 
+    @Test
+    void getCurrencyWithHighestNormalizedRangeForDate_zoneSelected_returnedCurrencyWithHighestRange() throws Exception {
+        when(currencyService.findCurrencyWithHighestNormalizedRangeForDate(LocalDate.of(2022, 1, 1), ZoneId.of("Europe/Warsaw"), AsOf.LATEST))
+                .thenReturn(Optional.of("ETH"));
+        mockMvc.perform(get("/currency/highest-normalized-range/2022-01-01").param("zone", "Europe/Warsaw"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("ETH")));
+    }
+
+    @Test
+    void getCurrencyWithHighestNormalizedRangeForDate_invalidZone_statusBadRequest() throws Exception {
+        mockMvc.perform(get("/currency/highest-normalized-range/2022-01-01").param("zone", "Mars/Olympus"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getCurrencyStatistics_nothingFound_statusNotFound() throws Exception {
-        when(currencyService.findCurrencyWithHighestNormalizedRangeForDate(LocalDate.of(2022, 1, 1)))
+        when(currencyService.findCurrencyWithHighestNormalizedRangeForDate(LocalDate.of(2022, 1, 1), ZoneId.of("UTC"), AsOf.LATEST))
                 .thenReturn(Optional.empty());
         mockMvc.perform(get("/currency/highest-normalized-range/2022-01-01"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getCurrencyCorrelation_validPayload_returnedCorrelation() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2022, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2022, 2, 1, 0, 0);
+        CurrencyCorrelation expected = new CurrencyCorrelation(
+                List.of("BTC", "ETH"),
+                new double[]{0.01, 0.02},
+                new double[][]{{1, 0.5}, {0.5, 1}});
+        when(correlationService.findCorrelation(from, to, Duration.ofHours(4), AsOf.LATEST)).thenReturn(expected);
+
+        MvcResult result = mockMvc.perform(get("/currency/correlation")
+                                          .param("from", "2022-01-01T00:00:00")
+                                          .param("to", "2022-02-01T00:00:00")
+                                          .param("interval", "4h"))
+                                  .andExpect(status().isOk())
+                                  .andReturn();
+
+        String json = result.getResponse().getContentAsString();
+        CurrencyCorrelation actual = mapper.readValue(json, CurrencyCorrelation.class);
+
+        assertEquals(expected.currencies(), actual.currencies());
+        assertArrayEquals(expected.volatility(), actual.volatility());
+        assertArrayEquals(expected.correlation(), actual.correlation());
+    }
+
+    @Test
+    void getCurrencyCorrelation_invalidInterval_statusBadRequest() throws Exception {
+        mockMvc.perform(get("/currency/correlation")
+                        .param("from", "2022-01-01T00:00:00")
+                        .param("to", "2022-02-01T00:00:00")
+                        .param("interval", "hourly"))
+                .andExpect(status().isBadRequest());
+    }
 }
\ No newline at end of file
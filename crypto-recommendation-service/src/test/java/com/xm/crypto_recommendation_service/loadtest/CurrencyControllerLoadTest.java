@@ -0,0 +1,203 @@
+package com.xm.crypto_recommendation_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.xm.crypto_recommendation_service.loadtest.LoadTestReport.EndpointResult;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drives the CurrencyController endpoints over HTTP against generated price data and reports
+ * throughput and latency percentiles to a JSON file. The run fails if any threshold of the
+ * {@link LoadTestSettings} is violated.
+ * <p>
+ * The test is tagged "load" and only runs with the "load-test" Maven profile.
+ */
+@Slf4j
+@Tag("load")
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CurrencyControllerLoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final Duration TICK_INTERVAL = Duration.ofHours(1);
+
+    @TempDir
+    static Path storage;
+
+    private static List<String> currencies;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void priceData(DynamicPropertyRegistry registry) throws IOException {
+        currencies = PriceDataGenerator.generate(storage, SETTINGS.currencies(), SETTINGS.ticksPerCurrency(), START, TICK_INTERVAL);
+        registry.add("storage-path", storage::toString);
+        registry.add("currencies", () -> String.join(",", currencies));
+    }
+
+    @Test
+    void endpointsMeetThresholds() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long measureFrom = System.nanoTime() + SETTINGS.warmup().toNanos();
+        long measureTo = measureFrom + SETTINGS.duration().toNanos();
+
+        List<Future<Recorder>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < SETTINGS.concurrency(); i++) {
+                SplittableRandom random = new SplittableRandom(i);
+                workers.add(executor.submit(() -> run(client, random, measureFrom, measureTo)));
+            }
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> worker : workers) {
+            total.addAll(worker.get());
+        }
+        LoadTestReport report = report(total, SETTINGS.duration().toNanos() / 1e9);
+
+        Path reportFile = Path.of(SETTINGS.report());
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(reportFile.toFile(), report);
+        log.info("Load test report written to {}: {}", reportFile.toAbsolutePath(), report.total());
+
+        assertTrue(report.passed(), () -> String.join("; ", report.failures()));
+    }
+
+    /**
+     * Sends requests in a closed loop until the end of the measurement, recording only the
+     * requests that start after the warmup.
+     */
+    private Recorder run(HttpClient client, SplittableRandom random, long measureFrom, long measureTo) {
+        Recorder recorder = new Recorder();
+        LocalDateTime to = START.plus(TICK_INTERVAL.multipliedBy(SETTINGS.ticksPerCurrency()));
+        int totalWeight = SETTINGS.mix().values().stream().mapToInt(Integer::intValue).sum();
+        for (long start = System.nanoTime(); start < measureTo; start = System.nanoTime()) {
+            Endpoint endpoint = pick(random.nextInt(totalWeight));
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:%d%s".formatted(port,
+                    endpoint.path(random, currencies, START, to)))).build();
+            boolean success;
+            try {
+                success = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+            } catch (IOException e) {
+                success = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (start >= measureFrom) {
+                recorder.record(endpoint, System.nanoTime() - start, success);
+            }
+        }
+        return recorder;
+    }
+
+    private static Endpoint pick(int value) {
+        for (Map.Entry<Endpoint, Integer> entry : SETTINGS.mix().entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty endpoint mix");
+    }
+
+    private static LoadTestReport report(Recorder recorder, double seconds) {
+        Map<Endpoint, EndpointResult> endpoints = new EnumMap<>(Endpoint.class);
+        List<String> failures = new ArrayList<>();
+        for (Endpoint endpoint : SETTINGS.mix().keySet()) {
+            EndpointResult result = EndpointResult.of(recorder.latencies(endpoint), recorder.errors(endpoint), seconds);
+            endpoints.put(endpoint, result);
+            if (result.p99Millis() > SETTINGS.maxP99Millis()) {
+                failures.add("%s p99 latency %.1f ms exceeds %.1f ms".formatted(endpoint, result.p99Millis(), SETTINGS.maxP99Millis()));
+            }
+        }
+        EndpointResult total = EndpointResult.of(recorder.latencies(null), recorder.errors(null), seconds);
+        if (total.throughput() < SETTINGS.minThroughput()) {
+            failures.add("Throughput %.1f/s is below %.1f/s".formatted(total.throughput(), SETTINGS.minThroughput()));
+        }
+        if (total.errorRate() > SETTINGS.maxErrorRate()) {
+            failures.add("Error rate %.4f exceeds %.4f".formatted(total.errorRate(), SETTINGS.maxErrorRate()));
+        }
+        return new LoadTestReport(SETTINGS, seconds, total, endpoints, failures, failures.isEmpty());
+    }
+
+    /**
+     * Collects the request latencies and errors of one worker.
+     */
+    private static final class Recorder {
+
+        private final Map<Endpoint, List<Long>> latencies = new EnumMap<>(Endpoint.class);
+        private final Map<Endpoint, Long> errors = new EnumMap<>(Endpoint.class);
+
+        void record(Endpoint endpoint, long latency, boolean success) {
+            latencies.computeIfAbsent(endpoint, key -> new ArrayList<>()).add(latency);
+            if (!success) {
+                errors.merge(endpoint, 1L, Long::sum);
+            }
+        }
+
+        void addAll(Recorder other) {
+            other.latencies.forEach((endpoint, values) -> latencies.computeIfAbsent(endpoint, key -> new ArrayList<>()).addAll(values));
+            other.errors.forEach((endpoint, count) -> errors.merge(endpoint, count, Long::sum));
+        }
+
+        /**
+         * @param endpoint the endpoint, or {@code null} for all endpoints
+         */
+        long[] latencies(Endpoint endpoint) {
+            return latencies.entrySet().stream()
+                    .filter(entry -> endpoint == null || entry.getKey() == endpoint)
+                    .flatMap(entry -> entry.getValue().stream())
+                    .mapToLong(Long::longValue)
+                    .toArray();
+        }
+
+        /**
+         * @param endpoint the endpoint, or {@code null} for all endpoints
+         */
+        long errors(Endpoint endpoint) {
+            return errors.entrySet().stream()
+                    .filter(entry -> endpoint == null || entry.getKey() == endpoint)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+    }
+}
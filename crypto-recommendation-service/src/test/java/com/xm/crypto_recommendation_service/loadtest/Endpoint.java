@@ -0,0 +1,61 @@
+package com.xm.crypto_recommendation_service.loadtest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The CurrencyController endpoints driven by the load test.
+ */
+enum Endpoint {
+
+    STATISTICS {
+        @Override
+        String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to) {
+            return "/currency/%s/statistics".formatted(currencies.get(random.nextInt(currencies.size())));
+        }
+    },
+    SORTED {
+        @Override
+        String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to) {
+            return "/currency/sorted-by-normalized-range";
+        }
+    },
+    HIGHEST {
+        @Override
+        String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to) {
+            long days = Math.max(1, Duration.between(from, to).toDays());
+            return "/currency/highest-normalized-range/%s?zone=%s".formatted(
+                    from.toLocalDate().plusDays(random.nextLong(days)), ZONES.get(random.nextInt(ZONES.size())));
+        }
+    },
+    CORRELATION {
+        @Override
+        String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to) {
+            return "/currency/correlation?from=%s&to=%s&interval=1h".formatted(from, to);
+        }
+    },
+    GENERATIONS {
+        @Override
+        String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to) {
+            return "/currency/generations";
+        }
+    };
+
+    /**
+     * The time zones of daily queries, with offsets on both sides of UTC.
+     */
+    private static final List<String> ZONES = List.of("UTC", "Europe/Warsaw", "America/New_York", "Asia/Tokyo", "Australia/Sydney");
+
+    /**
+     * Builds a random request path of this endpoint.
+     *
+     * @param random the random generator
+     * @param currencies the available currencies
+     * @param from the time of the oldest generated price tick
+     * @param to the time after the newest generated price tick
+     * @return the request path
+     */
+    abstract String path(RandomGenerator random, List<String> currencies, LocalDateTime from, LocalDateTime to);
+}
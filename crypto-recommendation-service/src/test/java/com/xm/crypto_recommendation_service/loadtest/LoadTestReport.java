@@ -0,0 +1,75 @@
+package com.xm.crypto_recommendation_service.loadtest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The machine-readable result of a load test run.
+ *
+ * @param settings the settings of the run
+ * @param measuredSeconds the measured duration in seconds, excluding warmup
+ * @param total the results over all endpoints
+ * @param endpoints the results per endpoint
+ * @param failures the violated thresholds, empty if the run passed
+ * @param passed whether all thresholds were met
+ */
+record LoadTestReport(LoadTestSettings settings,
+                      double measuredSeconds,
+                      EndpointResult total,
+                      Map<Endpoint, EndpointResult> endpoints,
+                      List<String> failures,
+                      boolean passed) {
+
+    /**
+     * The results of the requests to one or all endpoints.
+     *
+     * @param requests the number of completed requests
+     * @param errors the number of failed requests
+     * @param throughput the completed requests per second
+     * @param p50Millis the median latency in milliseconds
+     * @param p99Millis the 99th percentile latency in milliseconds
+     * @param p999Millis the 99.9th percentile latency in milliseconds
+     * @param maxMillis the maximum latency in milliseconds
+     */
+    record EndpointResult(long requests,
+                          long errors,
+                          double throughput,
+                          double p50Millis,
+                          double p99Millis,
+                          double p999Millis,
+                          double maxMillis) {
+
+        /**
+         * Summarizes the latencies of the requests.
+         *
+         * @param latencies the latencies in nanoseconds, sorted in place
+         * @param errors the number of failed requests
+         * @param seconds the measured duration in seconds
+         * @return the result
+         */
+        static EndpointResult of(long[] latencies, long errors, double seconds) {
+            Arrays.sort(latencies);
+            return new EndpointResult(
+                    latencies.length,
+                    errors,
+                    latencies.length / seconds,
+                    percentile(latencies, 0.50),
+                    percentile(latencies, 0.99),
+                    percentile(latencies, 0.999),
+                    percentile(latencies, 1.0));
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1);
+            return sorted[index] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.xm.crypto_recommendation_service.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings of the load test, read from system properties, e.g. {@code -Dloadtest.concurrency=64}.
+ *
+ * @param currencies the number of generated currencies (loadtest.currencies)
+ * @param ticksPerCurrency the number of generated price ticks per currency (loadtest.ticks-per-currency)
+ * @param concurrency the number of concurrent clients (loadtest.concurrency)
+ * @param warmup the warmup duration, not included in the results (loadtest.warmup)
+ * @param duration the measured duration (loadtest.duration)
+ * @param mix the relative weight of every endpoint (loadtest.mix, e.g. statistics=4,sorted=2,highest=3,correlation=1,generations=1)
+ * @param maxP99Millis the maximum allowed p99 latency of every endpoint in milliseconds (loadtest.max-p99-ms)
+ * @param minThroughput the minimum required total throughput in requests per second (loadtest.min-throughput)
+ * @param maxErrorRate the maximum allowed share of failed requests (loadtest.max-error-rate)
+ * @param report the path of the JSON report (loadtest.report)
+ */
+record LoadTestSettings(int currencies,
+                        int ticksPerCurrency,
+                        int concurrency,
+                        Duration warmup,
+                        Duration duration,
+                        Map<Endpoint, Integer> mix,
+                        double maxP99Millis,
+                        double minThroughput,
+                        double maxErrorRate,
+                        String report) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.currencies", 20),
+                Integer.getInteger("loadtest.ticks-per-currency", 2_000),
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                parseMix(System.getProperty("loadtest.mix", "statistics=4,sorted=2,highest=3,correlation=1,generations=1")),
+                Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "500")),
+                Double.parseDouble(System.getProperty("loadtest.min-throughput", "50")),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0")),
+                System.getProperty("loadtest.report", "target/load-test-report.json"));
+    }
+
+    private static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        Arrays.stream(mix.split(","))
+              .map(entry -> entry.trim().split("="))
+              .forEach(entry -> weights.put(Endpoint.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim())));
+        return weights;
+    }
+}
@@ -0,0 +1,53 @@
+package com.xm.crypto_recommendation_service.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates price files with random walk prices in the format read by the PriceTickRepository.
+ */
+final class PriceDataGenerator {
+
+    private PriceDataGenerator() {
+    }
+
+    /**
+     * Writes one price file per generated currency into the given directory.
+     *
+     * @param directory the storage directory
+     * @param currencies the number of currencies
+     * @param ticksPerCurrency the number of price ticks per currency
+     * @param start the time of the first price tick
+     * @param interval the time between price ticks
+     * @return the generated currency symbols
+     * @throws IOException if a file cannot be written
+     */
+    static List<String> generate(Path directory, int currencies, int ticksPerCurrency,
+                                 LocalDateTime start, Duration interval) throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        long first = start.toInstant(ZoneOffset.UTC).toEpochMilli();
+        List<String> symbols = new ArrayList<>(currencies);
+        for (int c = 0; c < currencies; c++) {
+            String symbol = "C%04d".formatted(c);
+            symbols.add(symbol);
+            double price = 1 + random.nextDouble(1_000);
+            try (BufferedWriter writer = Files.newBufferedWriter(directory.resolve(symbol + "_values.csv"))) {
+                writer.write("timestamp,symbol,price\n");
+                for (int i = 0; i < ticksPerCurrency; i++) {
+                    price *= Math.exp(random.nextDouble(-0.02, 0.02));
+                    writer.write(String.format(Locale.ROOT, "%d,%s,%.6f%n", first + i * interval.toMillis(), symbol, price));
+                }
+            }
+        }
+        return symbols;
+    }
+}
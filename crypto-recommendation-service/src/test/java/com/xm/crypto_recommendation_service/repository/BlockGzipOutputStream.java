@@ -0,0 +1,90 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The BlockGzipOutputStream class writes block-compressed gzip (BGZF) data, which can be read
+ * with any gzip tool and decompressed in parallel with {@link BlockGzipInputStream}.
+ * The data is split into blocks of {@value #BLOCK_DATA_SIZE} bytes, each compressed as an
+ * independent gzip member, followed by an empty end-of-file member.
+ * The service only reads price files; tests and benchmarks use this stream to create them.
+ */
+class BlockGzipOutputStream extends OutputStream {
+
+    static final int BLOCK_DATA_SIZE = 0xff00;
+
+    private final OutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final byte[] data = new byte[BLOCK_DATA_SIZE];
+    private final byte[] block = new byte[BlockGzipInputStream.MAX_BLOCK_SIZE];
+    private int size;
+
+    BlockGzipOutputStream(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        write(new byte[]{(byte) value}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+        while (length > 0) {
+            int copied = Math.min(length, data.length - size);
+            System.arraycopy(buffer, offset, data, size, copied);
+            size += copied;
+            offset += copied;
+            length -= copied;
+            if (size == data.length) {
+                writeBlock();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (size > 0) {
+            writeBlock();
+        }
+        writeBlock();
+        deflater.end();
+        out.close();
+    }
+
+    private void writeBlock() throws IOException {
+        deflater.reset();
+        deflater.setInput(data, 0, size);
+        deflater.finish();
+        int compressed = deflater.deflate(block, BlockGzipInputStream.HEADER_LENGTH,
+                BlockGzipInputStream.MAX_BLOCK_SIZE - BlockGzipInputStream.HEADER_LENGTH - BlockGzipInputStream.TRAILER_LENGTH);
+        if (!deflater.finished()) {
+            throw new IOException("Block does not fit into %d bytes after compression".formatted(BlockGzipInputStream.MAX_BLOCK_SIZE));
+        }
+        int blockSize = BlockGzipInputStream.HEADER_LENGTH + compressed + BlockGzipInputStream.TRAILER_LENGTH;
+
+        byte[] header = {
+                0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff,
+                6, 0, 'B', 'C', 2, 0, (byte) (blockSize - 1), (byte) ((blockSize - 1) >> 8)
+        };
+        System.arraycopy(header, 0, block, 0, header.length);
+
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, size);
+        int trailer = blockSize - BlockGzipInputStream.TRAILER_LENGTH;
+        writeInt(block, trailer, crc.getValue());
+        writeInt(block, trailer + 4, size);
+
+        out.write(block, 0, blockSize);
+        size = 0;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, long value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >> (8 * i));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.tick;
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.ticks;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LsmTickSourceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void read_noRuns_empty() throws IOException {
+        assertEquals(0, new LsmTickSource(directory, 4).read("BTC").size());
+    }
+
+    @Test
+    void append_severalRuns_readBackMergedAndDuplicatesReplacedByNewestRun() throws IOException {
+        LsmTickSource source = new LsmTickSource(directory, 4);
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(1, "1"), tick(3, "3"), tick(5, "5"))));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(2, "2"), tick(3, "30"))));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(3, "300"), tick(6, "6"))));
+
+        TickSegment actual = new LsmTickSource(directory, 4).read("BTC");
+
+        assertEquals(List.of(tick(1, "1"), tick(2, "2"), tick(3, "300"), tick(5, "5"), tick(6, "6")), ticks(actual));
+        assertEquals(3, runCount());
+    }
+
+    @Test
+    void append_moreThanMaxRuns_compactedIntoOneRun() throws IOException {
+        LsmTickSource source = new LsmTickSource(directory, 2);
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(1, "1"), tick(2, "2"))));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(2, "20"))));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(0, "0"))));
+
+        assertEquals(1, runCount());
+        assertEquals(List.of(tick(0, "0"), tick(1, "1"), tick(2, "20")), ticks(source.read("BTC")));
+
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(1, "10"))));
+
+        assertEquals(2, runCount());
+        assertEquals(List.of(tick(0, "0"), tick(1, "10"), tick(2, "20")), ticks(source.read("BTC")));
+    }
+
+    @Test
+    void read_seeded_importedOnce() throws IOException {
+        LsmTickSource target = new LsmTickSource(directory, 4);
+        TickSource seed = currency -> TickSegment.of(currency, List.of(tick(1, "1")));
+        SeededTickSource source = new SeededTickSource(target, seed);
+
+        assertEquals(List.of(tick(1, "1")), ticks(source.read("BTC")));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(2, "2"))));
+
+        assertEquals(List.of(tick(1, "1"), tick(2, "2")), ticks(source.read("BTC")));
+        assertEquals(2, runCount());
+    }
+
+    private long runCount() throws IOException {
+        try (Stream<Path> runs = Files.list(directory.resolve("BTC"))) {
+            return runs.filter(run -> run.toString().endsWith(".run")).count();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.tick;
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.ticks;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedTickSourceTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void read_noFile_empty() throws IOException {
+        assertEquals(0, new MappedTickSource(directory).read("BTC").size());
+    }
+
+    @Test
+    void append_severalSegments_readBackSortedAndDuplicatesReplacedByLast() throws IOException {
+        MappedTickSource source = new MappedTickSource(directory);
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(1, "1.5"), tick(3, "3"))));
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(2, "2.25"), tick(3, "30"))));
+
+        TickSegment actual = new MappedTickSource(directory).read("BTC");
+
+        assertEquals(List.of(tick(1, "1.5"), tick(2, "2.25"), tick(3, "30")), ticks(actual));
+    }
+
+    @Test
+    void read_partialRecordAtEnd_ignored() throws IOException {
+        MappedTickSource source = new MappedTickSource(directory);
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(1, "1"))));
+        Files.write(directory.resolve("BTC.ticks"), new byte[7], StandardOpenOption.APPEND);
+
+        assertEquals(List.of(tick(1, "1")), ticks(source.read("BTC")));
+
+        source.append("BTC", TickSegment.of("BTC", List.of(tick(2, "2"))));
+
+        assertEquals(List.of(tick(1, "1"), tick(2, "2")), ticks(source.read("BTC")));
+    }
+
+    @Test
+    void read_notATickFile_throwsIOException() throws IOException {
+        Files.writeString(directory.resolve("BTC.ticks"), "timestamp,symbol,price\n");
+
+        assertThrows(IOException.class, () -> new MappedTickSource(directory).read("BTC"));
+    }
+}
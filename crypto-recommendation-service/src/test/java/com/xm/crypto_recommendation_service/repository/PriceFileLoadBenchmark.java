@@ -0,0 +1,111 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.generateCsv;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.airlift.compress.zstd.ZstdCompressor;
+
+/**
+ * Compares the load time of a price file in every supported format.
+ * Run the main method from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PriceFileLoadBenchmark {
+
+    public enum Encoding {
+        CSV, GZIP, BLOCK_GZIP, ZSTD
+    }
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"CSV", "GZIP", "BLOCK_GZIP", "ZSTD"})
+    private Encoding encoding;
+
+    private final PriceFileReader priceFileReader = new PriceFileReader(ForkJoinPool.commonPool());
+
+    private Path directory;
+    private File file;
+    private PriceFileFormat format;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        directory = Files.createTempDirectory("price-file-benchmark");
+        byte[] csv = generateCsv(1641009600000L, rows, false);
+        format = switch (encoding) {
+            case CSV -> PriceFileFormat.CSV;
+            case GZIP, BLOCK_GZIP -> PriceFileFormat.GZIP;
+            case ZSTD -> PriceFileFormat.ZSTD;
+        };
+        file = directory.resolve(format.fileName("BTC")).toFile();
+
+        switch (encoding) {
+            case CSV -> Files.write(file.toPath(), csv);
+            case GZIP -> {
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+                    out.write(csv);
+                }
+            }
+            case BLOCK_GZIP -> {
+                try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file.toPath()))) {
+                    out.write(csv);
+                }
+            }
+            case ZSTD -> {
+                ZstdCompressor compressor = new ZstdCompressor();
+                byte[] compressed = new byte[compressor.maxCompressedLength(csv.length)];
+                int length = compressor.compress(csv, 0, csv.length, compressed, 0, compressed.length);
+                Files.write(file.toPath(), Arrays.copyOf(compressed, length));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public TickSegment load() throws IOException {
+        return priceFileReader.read("BTC", file, format);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceFileLoadBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,136 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.generateCsv;
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.START_PRICE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.airlift.compress.zstd.ZstdCompressor;
+
+class PriceFileReaderTest {
+
+    private static final long START = 1641009600000L;
+
+    private static final int ROWS = 50_000;
+
+    @TempDir
+    private Path directory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final PriceFileReader priceFileReader = new PriceFileReader(executor);
+
+    private final byte[] csv = generateCsv(START, ROWS, true);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void read_csv_allTicksRead() throws IOException {
+        File file = write("BTC_values.csv", csv);
+        assertSegment(priceFileReader.read("BTC", file, PriceFileFormat.CSV));
+    }
+
+    @Test
+    void read_gzip_allTicksRead() throws IOException {
+        File file = directory.resolve("BTC_values.csv.gz").toFile();
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(csv);
+        }
+        assertSegment(priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    @Test
+    void read_blockGzip_allTicksRead() throws IOException {
+        File file = directory.resolve("BTC_values.csv.gz").toFile();
+        try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(csv);
+        }
+        assertSegment(priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    @Test
+    void read_zstd_allTicksRead() throws IOException {
+        ZstdCompressor compressor = new ZstdCompressor();
+        byte[] compressed = new byte[compressor.maxCompressedLength(csv.length)];
+        int length = compressor.compress(csv, 0, csv.length, compressed, 0, compressed.length);
+        File file = write("BTC_values.csv.zst", Arrays.copyOf(compressed, length));
+        assertSegment(priceFileReader.read("BTC", file, PriceFileFormat.ZSTD));
+    }
+
+    @Test
+    void read_corruptBlockGzip_throwsException() throws IOException {
+        File file = directory.resolve("BTC_values.csv.gz").toFile();
+        try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(csv);
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(file.toPath(), bytes);
+
+        assertThrows(IOException.class, () -> priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    @Test
+    void read_blockGzipSizeAboveLimit_throwsZipException() throws IOException {
+        File file = directory.resolve("BTC_values.csv.gz").toFile();
+        try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(csv);
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        int blockSize = BlockGzipInputStream.unsignedShort(bytes, 16) + 1;
+        Arrays.fill(bytes, blockSize - 4, blockSize, (byte) 0xff);
+        Files.write(file.toPath(), bytes);
+
+        assertThrows(ZipException.class, () -> priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    @Test
+    void read_blockGzipSizeBelowHeaderAndTrailer_throwsZipException() throws IOException {
+        File file = directory.resolve("BTC_values.csv.gz").toFile();
+        try (OutputStream out = new BlockGzipOutputStream(Files.newOutputStream(file.toPath()))) {
+            out.write(csv);
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[16] = (byte) (BlockGzipInputStream.HEADER_LENGTH - 2);
+        bytes[17] = 0;
+        Files.write(file.toPath(), bytes);
+
+        assertThrows(ZipException.class, () -> priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    @Test
+    void read_invalidGzipHeader_throwsIOException() throws IOException {
+        File file = write("BTC_values.csv.gz", "timestamp,symbol,price\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IOException.class, () -> priceFileReader.read("BTC", file, PriceFileFormat.GZIP));
+    }
+
+    private File write(String name, byte[] content) throws IOException {
+        return Files.write(directory.resolve(name), content).toFile();
+    }
+
+    private static void assertSegment(TickSegment segment) {
+        assertEquals(ROWS, segment.size());
+        assertEquals(START, segment.timestamp(0));
+        assertEquals(START_PRICE, segment.price(0).toPlainString());
+        assertEquals(START + (ROWS - 1) * 60_000L, segment.timestamp(ROWS - 1));
+    }
+}
@@ -3,57 +3,250 @@ package com.xm.crypto_recommendation_service.repository;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.DataGeneration;
 import com.xm.crypto_recommendation_service.model.PriceTick;
 
-@SpringBootTest
+@SpringBootTest(properties = {"generations.retained=2", "compaction.max-fan-in=2"})
 @ActiveProfiles("test")
 class PriceTickRepositoryTest {
 
     @Autowired
     private PriceTickRepository priceTickRepository;
 
+    @Autowired
+    private TickCompactor tickCompactor;
+
+    private TickGeneration generation;
+
+    @BeforeEach
+    void acquireGeneration() {
+        generation = priceTickRepository.acquire(AsOf.LATEST);
+    }
+
+    @AfterEach
+    void releaseGeneration() {
+        generation.close();
+    }
+
     @Test
     void findMinimum_minFound() {
-        Optional<PriceTick> actual = priceTickRepository.findMinimum("BTC");
+        Optional<PriceTick> actual = generation.findMinimum("BTC");
         assertEquals(new BigDecimal("33276.59"), actual.get().price());
     }
 
     @Test
-    void findMinimumForDate_minFound() {
-        Optional<PriceTick> actual = priceTickRepository.findMinimumForDate("BTC", LocalDate.of(2022, 1, 1));
+    void findMinimumBetween_minFound() {
+        Optional<PriceTick> actual = generation.findMinimumBetween("BTC", startOfDay(2022, 1, 1, ZoneOffset.UTC), startOfDay(2022, 1, 2, ZoneOffset.UTC));
         assertEquals(new BigDecimal("46813.21"), actual.get().price());
     }
 
+    @Test
+    void findMinimumBetween_otherTimeZone_minFound() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        Optional<PriceTick> actual = generation.findMinimumBetween("BTC", startOfDay(2022, 1, 1, zone), startOfDay(2022, 1, 2, zone));
+        assertEquals(new BigDecimal("46871.09"), actual.get().price());
+    }
+
     @Test
     void findMaximum_maxFound() {
-        Optional<PriceTick> actual = priceTickRepository.findMaximum("BTC");
+        Optional<PriceTick> actual = generation.findMaximum("BTC");
         assertEquals(new BigDecimal("47722.66"), actual.get().price());
     }
 
     @Test
-    void findMaximumForDate_maxFound() {
-        Optional<PriceTick> actual = priceTickRepository.findMaximumForDate("BTC", LocalDate.of(2022, 1, 1));
+    void findMaximumBetween_maxFound() {
+        Optional<PriceTick> actual = generation.findMaximumBetween("BTC", startOfDay(2022, 1, 1, ZoneOffset.UTC), startOfDay(2022, 1, 2, ZoneOffset.UTC));
         assertEquals(new BigDecimal("47143.98"), actual.get().price());
     }
 
+    @Test
+    void findMaximumBetween_otherTimeZone_maxFound() {
+        ZoneId zone = ZoneId.of("America/New_York");
+        Optional<PriceTick> actual = generation.findMaximumBetween("BTC", startOfDay(2022, 1, 1, zone), startOfDay(2022, 1, 2, zone));
+        assertEquals(new BigDecimal("47722.66"), actual.get().price());
+    }
+
+    @Test
+    void cached_sameKey_queryRunOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        Integer first = generation.cached("key", runs::incrementAndGet);
+        Integer second = generation.cached("key", runs::incrementAndGet);
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void cached_moreKeysThanLimit_leastRecentlyUsedEvicted() {
+        AtomicInteger runs = new AtomicInteger();
+        generation.cached("lru-hot", runs::incrementAndGet);
+        for (int i = 0; i < TickGeneration.MAX_CACHED_QUERIES; i++) {
+            generation.cached("lru-" + i, runs::incrementAndGet);
+            generation.cached("lru-hot", runs::incrementAndGet);
+        }
+        runs.set(0);
+
+        generation.cached("lru-hot", runs::incrementAndGet);
+        generation.cached("lru-" + (TickGeneration.MAX_CACHED_QUERIES - 1), runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        generation.cached("lru-0", runs::incrementAndGet);
+        assertEquals(1, runs.get());
+    }
+
     @Test
     void findOldest_oldestFound() {
-        Optional<PriceTick> actual = priceTickRepository.findOldest("BTC");
+        Optional<PriceTick> actual = generation.findOldest("BTC");
         assertEquals(LocalDateTime.of(2022, 1, 1 , 4, 0), actual.get().time());
     }
 
     @Test
     void findNewest_newestFound() {
-        Optional<PriceTick> actual = priceTickRepository.findNewest("BTC");
+        Optional<PriceTick> actual = generation.findNewest("BTC");
         assertEquals(LocalDateTime.of(2022, 1, 31 , 20, 0), actual.get().time());
     }
+
+    @Test
+    void findAllBetween_ticksInRangeFound() {
+        List<PriceTick> actual = generation.findAllBetween("BTC", LocalDateTime.of(2022, 1, 1, 4, 0), LocalDateTime.of(2022, 1, 1, 8, 0));
+        assertEquals(List.of(new BigDecimal("46813.21"), new BigDecimal("46979.61")), actual.stream().map(PriceTick::price).toList());
+    }
+
+    @Test
+    @DirtiesContext
+    void append_newGenerationPublished_previousGenerationUnchanged() {
+        PriceTick newest = new PriceTick(LocalDateTime.of(2022, 2, 1, 0, 0), "BTC", new BigDecimal("10"));
+
+        priceTickRepository.append(List.of(newest));
+
+        try (TickGeneration latest = priceTickRepository.acquire(AsOf.LATEST);
+             TickGeneration previous = priceTickRepository.acquire(new AsOf(generation.id(), null))) {
+            assertEquals(generation.id() + 1, latest.id());
+            assertEquals(newest, latest.findNewest("BTC").get());
+            assertEquals(newest, latest.findMinimum("BTC").get());
+            assertEquals(new BigDecimal("33276.59"), previous.findMinimum("BTC").get().price());
+            assertEquals(generation.findMaximum("ETH"), latest.findMaximum("ETH"));
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void append_duplicateTimestamps_supersededTicksIgnoredBeforeCompaction() {
+        LocalDateTime minimumTime = LocalDateTime.of(2022, 1, 24, 11, 0);
+        PriceTick replacedMinimum = new PriceTick(minimumTime, "BTC", new BigDecimal("36000"));
+        PriceTick replacedDayMaximum = new PriceTick(LocalDateTime.of(2022, 1, 24, 22, 0), "BTC", new BigDecimal("35000"));
+
+        priceTickRepository.append(List.of(replacedMinimum, replacedDayMaximum));
+
+        try (TickGeneration latest = priceTickRepository.acquire(AsOf.LATEST)) {
+            assertEquals(2, latest.currencyTicks("BTC").segments().size());
+            assertEquals(new BigDecimal("33622.7"), latest.findMinimum("BTC").get().price());
+            assertEquals(new BigDecimal("47722.66"), latest.findMaximum("BTC").get().price());
+
+            Instant from = startOfDay(2022, 1, 24, ZoneOffset.UTC);
+            Instant to = startOfDay(2022, 1, 25, ZoneOffset.UTC);
+            assertEquals(new BigDecimal("33622.7"), latest.findMinimumBetween("BTC", from, to).get().price());
+            assertEquals(replacedMinimum, latest.findMaximumBetween("BTC", from, to).get());
+
+            assertEquals(List.of(replacedMinimum), latest.findAllBetween("BTC", minimumTime, minimumTime.plusHours(1)));
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void compact_severalPasses_retainedGenerationsStillResolvable() {
+        priceTickRepository.append(List.of(new PriceTick(LocalDateTime.of(2022, 2, 1, 0, 0), "BTC", BigDecimal.ONE)));
+        priceTickRepository.append(List.of(new PriceTick(LocalDateTime.of(2022, 2, 2, 0, 0), "BTC", BigDecimal.TWO)));
+        List<DataGeneration> before = priceTickRepository.findGenerations();
+        AsOf pinned = new AsOf(before.getFirst().id(), null);
+
+        for (int pass = 0; pass < 3; pass++) {
+            tickCompactor.compact();
+
+            try (TickGeneration actual = priceTickRepository.acquire(pinned)) {
+                assertEquals(pinned.generation(), actual.id());
+            }
+            assertEquals(before, priceTickRepository.findGenerations());
+        }
+        try (TickGeneration latest = priceTickRepository.acquire(AsOf.LATEST)) {
+            assertEquals(1, latest.currencyTicks("BTC").segments().size());
+            assertEquals(BigDecimal.ONE, latest.findMinimum("BTC").get().price());
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void acquire_timestamp_generationCurrentAtTimestampFound() {
+        priceTickRepository.reload();
+
+        try (TickGeneration actual = priceTickRepository.acquire(new AsOf(null, generation.publishedAt()))) {
+            assertEquals(generation.id(), actual.id());
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void acquire_evictedGeneration_throwsException() {
+        priceTickRepository.reload();
+        priceTickRepository.reload();
+
+        assertThrows(GenerationNotFoundException.class, () -> priceTickRepository.acquire(new AsOf(generation.id(), null)));
+        assertEquals(2, priceTickRepository.findGenerations().size());
+    }
+
+    @Test
+    @DirtiesContext
+    void close_evictedGeneration_freedAfterLastReference() {
+        priceTickRepository.reload();
+        priceTickRepository.reload();
+
+        assertTrue(generation.findMinimum("BTC").isPresent());
+        generation.close();
+        assertThrows(IllegalStateException.class, () -> generation.findMinimum("BTC"));
+        generation = priceTickRepository.acquire(AsOf.LATEST);
+    }
+
+    @Test
+    @DirtiesContext
+    void close_releasedTwice_throwsIllegalStateException() {
+        priceTickRepository.reload();
+        priceTickRepository.reload();
+
+        generation.close();
+        assertThrows(IllegalStateException.class, generation::close);
+        generation = priceTickRepository.acquire(AsOf.LATEST);
+    }
+
+    @Test
+    @DirtiesContext
+    void acquire_retainedGenerationOverReleased_throwsIllegalStateException() {
+        generation.close();
+        generation.close();
+
+        assertThrows(IllegalStateException.class, () -> priceTickRepository.acquire(AsOf.LATEST));
+        generation = new TickGeneration(0, Instant.EPOCH, Map.of());
+    }
+
+    private static Instant startOfDay(int year, int month, int day, ZoneId zone) {
+        return LocalDate.of(year, month, day).atStartOfDay(zone).toInstant();
+    }
 }
\ No newline at end of file
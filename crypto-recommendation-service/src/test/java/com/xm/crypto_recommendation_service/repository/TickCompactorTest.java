@@ -0,0 +1,81 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@DirtiesContext
+@AutoConfigureMockMvc
+class TickCompactorTest {
+
+    @Autowired
+    private PriceTickRepository priceTickRepository;
+
+    @Autowired
+    private TickCompactor tickCompactor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void compact_lateAndDuplicateTicksAppended_mergedIntoSortedSegment() {
+        LocalDateTime oldest = LocalDateTime.of(2022, 1, 1, 4, 0);
+        PriceTick late = new PriceTick(oldest.minusHours(1), "BTC", new BigDecimal("46000"));
+        PriceTick duplicate = new PriceTick(oldest, "BTC", new BigDecimal("46900"));
+        priceTickRepository.append(List.of(late));
+        priceTickRepository.append(List.of(duplicate));
+
+        assertEquals(2, tickCompactor.backlog().segments());
+        assertEquals(2, meterRegistry.get("ticks.compaction.backlog.ticks").gauge().value());
+
+        long ticksBefore;
+        try (TickGeneration generation = priceTickRepository.acquire(AsOf.LATEST)) {
+            ticksBefore = generation.currencyTicks("BTC").size();
+        }
+
+        tickCompactor.compact();
+
+        try (TickGeneration generation = priceTickRepository.acquire(AsOf.LATEST)) {
+            CurrencyTicks btc = generation.currencyTicks("BTC");
+            assertEquals(1, btc.segments().size());
+            assertEquals(ticksBefore - 1, btc.size());
+            assertEquals(late, generation.findOldest("BTC").get());
+            assertEquals(List.of(duplicate), generation.findAllBetween("BTC", oldest, oldest.plusMinutes(1)));
+        }
+        assertEquals(0, tickCompactor.backlog().segments());
+        assertEquals(1, meterRegistry.get("ticks.compaction.merges").counter().count());
+        assertEquals(1, meterRegistry.get("ticks.compaction.duplicates").counter().count());
+    }
+
+    @Test
+    void metricsEndpoint_compactionMetricsExposed() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/ticks.compaction.backlog.segments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("ticks.compaction.backlog.segments"));
+        mockMvc.perform(get("/actuator/metrics/ticks.compaction.merges"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,66 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+/**
+ * Price tick fixtures shared by the repository tests and benchmarks.
+ */
+final class TickFixtures {
+
+    static final LocalDateTime TIME = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    static final String START_PRICE = "46813.21";
+
+    private TickFixtures() {
+    }
+
+    /**
+     * Creates a BTC price tick the given number of hours after {@link #TIME}.
+     */
+    static PriceTick tick(int hour, String price) {
+        return new PriceTick(TIME.plusHours(hour), "BTC", new BigDecimal(price));
+    }
+
+    /**
+     * Materializes all price ticks of a segment, oldest first.
+     */
+    static List<PriceTick> ticks(TickSegment segment) {
+        return IntStream.range(0, segment.size()).mapToObj(segment::priceTick).toList();
+    }
+
+    /**
+     * Generates a BTC price file with a random walk of one tick per minute, starting at {@value #START_PRICE}.
+     *
+     * @param start the timestamp of the first tick in milliseconds since the epoch
+     * @param rows the number of ticks
+     * @param descending whether the ticks are written newest first, so that the file is not sorted
+     * @return the CSV content
+     */
+    static byte[] generateCsv(long start, int rows, boolean descending) {
+        Random random = new Random(42);
+        double[] prices = new double[rows];
+        double price = Double.parseDouble(START_PRICE);
+        for (int i = 0; i < rows; i++) {
+            prices[i] = price;
+            price = Math.max(0.01, price * (1 + random.nextGaussian() * 0.001));
+        }
+
+        StringBuilder builder = new StringBuilder("timestamp,symbol,price\n");
+        for (int row = 0; row < rows; row++) {
+            int i = descending ? rows - 1 - row : row;
+            builder.append(start + i * 60_000L)
+                   .append(",BTC,")
+                   .append(String.format(Locale.ROOT, "%.2f", prices[i]))
+                   .append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
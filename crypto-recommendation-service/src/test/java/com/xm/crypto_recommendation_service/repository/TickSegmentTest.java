@@ -0,0 +1,42 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.tick;
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.ticks;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TickSegmentTest {
+
+    @Test
+    void of_unsortedTicks_sortedAndDuplicatesReplacedByLast() {
+        TickSegment actual = TickSegment.of("BTC", List.of(tick(3, "3"), tick(1, "1"), tick(2, "2"), tick(1, "10")));
+
+        assertEquals(List.of(tick(1, "10"), tick(2, "2"), tick(3, "3")), ticks(actual));
+    }
+
+    @Test
+    void merge_overlappingSegments_sortedAndDuplicatesReplacedByLatestSegment() {
+        TickSegment oldest = TickSegment.of("BTC", List.of(tick(1, "1"), tick(3, "3"), tick(5, "5")));
+        TickSegment middle = TickSegment.of("BTC", List.of(tick(2, "2"), tick(3, "30")));
+        TickSegment newest = TickSegment.of("BTC", List.of(tick(3, "300"), tick(6, "6")));
+
+        TickSegment actual = TickSegment.merge("BTC", List.of(oldest, middle, newest));
+
+        assertEquals(List.of(tick(1, "1"), tick(2, "2"), tick(3, "300"), tick(5, "5"), tick(6, "6")), ticks(actual));
+    }
+
+    @Test
+    void lowerBound_firstTickNotBeforeTimestampFound() {
+        TickSegment segment = TickSegment.of("BTC", List.of(tick(1, "1"), tick(3, "3"), tick(5, "5")));
+        long hour = 3_600_000;
+        long start = segment.timestamp(0) - hour;
+
+        assertEquals(0, segment.lowerBound(start));
+        assertEquals(1, segment.lowerBound(start + 2 * hour));
+        assertEquals(1, segment.lowerBound(start + 3 * hour));
+        assertEquals(3, segment.lowerBound(start + 6 * hour));
+    }
+}
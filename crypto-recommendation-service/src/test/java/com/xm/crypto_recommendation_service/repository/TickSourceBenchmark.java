@@ -0,0 +1,105 @@
+package com.xm.crypto_recommendation_service.repository;
+
+import static com.xm.crypto_recommendation_service.repository.TickFixtures.generateCsv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the tick source backends on the same workloads: loading all ticks of a currency, as on
+ * startup and reload, and persisting an appended batch of ticks. The CSV source is read-only, so its
+ * append measures the in-memory baseline. Queries are answered from memory regardless of the backend.
+ * Run the main method from the test classpath after {@code mvn test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TickSourceBenchmark {
+
+    public enum Backend {
+        CSV, MAPPED, LSM
+    }
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"1000"})
+    private int batchRows;
+
+    @Param({"CSV", "MAPPED", "LSM"})
+    private Backend backend;
+
+    private Path directory;
+    private TickSource tickSource;
+    private TickSegment batch;
+
+    @Setup(Level.Trial)
+    public void createSource() throws IOException {
+        directory = Files.createTempDirectory("tick-source-benchmark");
+        Path prices = Files.createDirectories(directory.resolve("prices"));
+        Path batchPrices = Files.createDirectories(directory.resolve("batch"));
+        long start = 1641009600000L;
+        Files.write(prices.resolve("BTC_values.csv"), generateCsv(start, rows, false));
+        Files.write(batchPrices.resolve("BTC_values.csv"), generateCsv(start + rows * 60_000L, batchRows, false));
+
+        CsvTickSource csvTickSource = new CsvTickSource(prices.toString(), ForkJoinPool.commonPool());
+        tickSource = switch (backend) {
+            case CSV -> csvTickSource;
+            case MAPPED -> new SeededTickSource(new MappedTickSource(directory.resolve("mapped")), csvTickSource);
+            case LSM -> new SeededTickSource(new LsmTickSource(directory.resolve("lsm"), 8), csvTickSource);
+        };
+        tickSource.read("BTC");
+        batch = new CsvTickSource(batchPrices.toString(), ForkJoinPool.commonPool()).read("BTC");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public TickSegment read() throws IOException {
+        return tickSource.read("BTC");
+    }
+
+    @Benchmark
+    public void append() throws IOException {
+        tickSource.append("BTC", batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TickSourceBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
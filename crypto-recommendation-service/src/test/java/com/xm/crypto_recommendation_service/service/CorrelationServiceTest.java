@@ -0,0 +1,103 @@
+package com.xm.crypto_recommendation_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.xm.crypto_recommendation_service.model.AsOf;
+import com.xm.crypto_recommendation_service.model.CurrencyCorrelation;
+import com.xm.crypto_recommendation_service.model.PriceTick;
+import com.xm.crypto_recommendation_service.repository.PriceTickRepository;
+import com.xm.crypto_recommendation_service.repository.TickGeneration;
+import com.xm.crypto_recommendation_service.service.correlation.CorrelationMatrixCalculator;
+import com.xm.crypto_recommendation_service.service.correlation.ScalarCorrelationKernel;
+
+class CorrelationServiceTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusHours(6);
+
+    private final PriceTickRepository priceTickRepository = mock();
+
+    private final TickGeneration generation = mock();
+
+    private final CorrelationMatrixCalculator correlationMatrixCalculator =
+            new CorrelationMatrixCalculator(new ScalarCorrelationKernel(), ForkJoinPool.commonPool());
+
+    private final CorrelationService correlationService =
+            new CorrelationService(new String[]{"ETH", "BTC", "LTC", "XRP", "DOGE"}, priceTickRepository, correlationMatrixCalculator);
+
+    @BeforeEach
+    void setUp() {
+        when(priceTickRepository.acquire(AsOf.LATEST)).thenReturn(generation);
+    }
+
+    @Test
+    void findCorrelation_emptyAndConstantCurrenciesExcluded() {
+        stubTicks("BTC", "10", "11", "9", "12", "12", "8");
+        stubTicks("ETH", "20", "22", "18", "24", "24", "16");
+        stubTicks("DOGE", "5", "4", "6", "5", "7", "6");
+        stubTicks("LTC", "3", "3", "3", "3", "3", "3");
+        when(generation.findAllBetween(eq("XRP"), any(), any())).thenReturn(List.of());
+
+        CurrencyCorrelation actual = correlationService.findCorrelation(FROM, TO, Duration.ofHours(1), AsOf.LATEST);
+
+        assertEquals(List.of("ETH", "BTC", "DOGE"), actual.currencies());
+        assertEquals(actual.volatility()[0], actual.volatility()[1], DELTA);
+        assertEquals(1, actual.correlation()[0][1], DELTA);
+        assertTrue(actual.correlation()[1][2] < 0);
+    }
+
+    @Test
+    void findCorrelation_gapsFilledForward_alignedOntoGrid() {
+        when(generation.findAllBetween(eq("BTC"), any(), any())).thenReturn(List.of(
+                tick("BTC", FROM.plusMinutes(30), "10"),
+                tick("BTC", FROM.plusMinutes(150), "20"),
+                tick("BTC", FROM.plusMinutes(270), "10")));
+        stubTicks("ETH", "10", "10", "20", "20", "10", "10");
+
+        CurrencyCorrelation actual = correlationService.findCorrelation(FROM, TO, Duration.ofHours(1), AsOf.LATEST);
+
+        assertEquals(List.of("ETH", "BTC"), actual.currencies());
+        assertEquals(1, actual.correlation()[0][1], DELTA);
+    }
+
+    @Test
+    void findCorrelation_tooManyCells_throwsIllegalArgumentException() {
+        String[] currencies = IntStream.range(0, 100).mapToObj("C%03d"::formatted).toArray(String[]::new);
+        CorrelationService service = new CorrelationService(currencies, priceTickRepository, correlationMatrixCalculator);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.findCorrelation(FROM, FROM.plusDays(1), Duration.ofSeconds(1), AsOf.LATEST));
+        verifyNoInteractions(priceTickRepository);
+    }
+
+    /**
+     * Stubs one tick per hour of the time range with the given prices.
+     */
+    private void stubTicks(String currency, String... prices) {
+        List<PriceTick> ticks = IntStream.range(0, prices.length)
+                .mapToObj(i -> tick(currency, FROM.plusHours(i), prices[i]))
+                .toList();
+        when(generation.findAllBetween(eq(currency), any(), any())).thenReturn(ticks);
+    }
+
+    private static PriceTick tick(String currency, LocalDateTime time, String price) {
+        return new PriceTick(time, currency, new BigDecimal(price));
+    }
+}
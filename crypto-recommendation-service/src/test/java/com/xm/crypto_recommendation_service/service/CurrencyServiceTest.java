@@ -1,28 +1,45 @@
 package com.xm.crypto_recommendation_service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.xm.crypto_recommendation_service.model.AsOf;
 import com.xm.crypto_recommendation_service.model.CurrencyStatistics;
 import com.xm.crypto_recommendation_service.model.PriceTick;
 import com.xm.crypto_recommendation_service.repository.PriceTickRepository;
+import com.xm.crypto_recommendation_service.repository.TickGeneration;
 
 class CurrencyServiceTest {
 
     private final PriceTickRepository priceTickRepository = mock();
 
+    private final TickGeneration generation = mock();
+
     private final CurrencyService currencyService = new CurrencyService(new String[]{"ETH", "BTC", "LTC"}, priceTickRepository);
 
+    @BeforeEach
+    void setUp() {
+        when(priceTickRepository.acquire(AsOf.LATEST)).thenReturn(generation);
+    }
+
     @Test
     void findStatistics_statisticsFound() {
         String currency = "BTC";
@@ -32,14 +49,14 @@ class CurrencyServiceTest {
         PriceTick oldest = new PriceTick(LocalDateTime.MIN, currency, BigDecimal.TEN);
         PriceTick newest = new PriceTick(LocalDateTime.MAX, currency, BigDecimal.TEN);
 
-        when(priceTickRepository.findMinimum(currency)).thenReturn(Optional.of(minimum));
-        when(priceTickRepository.findMaximum(currency)).thenReturn(Optional.of(maximum));
-        when(priceTickRepository.findOldest(currency)).thenReturn(Optional.of(oldest));
-        when(priceTickRepository.findNewest(currency)).thenReturn(Optional.of(newest));
+        when(generation.findMinimum(currency)).thenReturn(Optional.of(minimum));
+        when(generation.findMaximum(currency)).thenReturn(Optional.of(maximum));
+        when(generation.findOldest(currency)).thenReturn(Optional.of(oldest));
+        when(generation.findNewest(currency)).thenReturn(Optional.of(newest));
 
         CurrencyStatistics expected = new CurrencyStatistics(minimum, maximum, oldest, newest);
 
-        CurrencyStatistics actual = currencyService.findStatistics(currency);
+        CurrencyStatistics actual = currencyService.findStatistics(currency, AsOf.LATEST);
 
         assertEquals(expected, actual);
     }
@@ -60,17 +77,17 @@ class CurrencyServiceTest {
 
         currencyToMinimumValue.forEach((currency, value) -> {
             Optional<PriceTick> priceTick = Optional.of(new PriceTick(LocalDateTime.now(), currency, value));
-            when(priceTickRepository.findMinimum(currency)).thenReturn(priceTick);
+            when(generation.findMinimum(currency)).thenReturn(priceTick);
         });
 
         currencyToMaximumValue.forEach((currency, value) -> {
             Optional<PriceTick> priceTick = Optional.of(new PriceTick(LocalDateTime.now(), currency, value));
-            when(priceTickRepository.findMaximum(currency)).thenReturn(priceTick);
+            when(generation.findMaximum(currency)).thenReturn(priceTick);
         });
 
         List<String> expected = List.of("ETH", "BTC", "LTC");
 
-        List<String> actual = currencyService.getCurrenciesSortedByNormalizedRangeDesc();
+        List<String> actual = currencyService.getCurrenciesSortedByNormalizedRangeDesc(AsOf.LATEST);
 
         assertEquals(expected, actual);
     }
@@ -89,19 +106,49 @@ class CurrencyServiceTest {
         );
         LocalDateTime now = LocalDateTime.now();
         LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.of("Europe/Warsaw");
+        Instant from = today.atStartOfDay(zone).toInstant();
+        Instant to = today.plusDays(1).atStartOfDay(zone).toInstant();
+
+        when(generation.cached(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
 
         currencyToMinimumValue.forEach((currency, value) -> {
             Optional<PriceTick> priceTick = Optional.of(new PriceTick(now, currency, value));
-            when(priceTickRepository.findMinimumForDate(currency, today)).thenReturn(priceTick);
+            when(generation.findMinimumBetween(currency, from, to)).thenReturn(priceTick);
         });
 
         currencyToMaximumValue.forEach((currency, value) -> {
             Optional<PriceTick> priceTick = Optional.of(new PriceTick(now, currency, value));
-            when(priceTickRepository.findMaximumForDate(currency, today)).thenReturn(priceTick);
+            when(generation.findMaximumBetween(currency, from, to)).thenReturn(priceTick);
         });
 
-        Optional<String> actual = currencyService.findCurrencyWithHighestNormalizedRangeForDate(today);
+        Optional<String> actual = currencyService.findCurrencyWithHighestNormalizedRangeForDate(today, zone, AsOf.LATEST);
 
         assertEquals("ETH", actual.get());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findCurrencyWithHighestNormalizedRangeForDate_sameQueryTwice_rangesFoundOnce() {
+        LocalDate today = LocalDate.now();
+        ZoneId zone = ZoneId.of("Europe/Warsaw");
+        Instant from = today.atStartOfDay(zone).toInstant();
+        Instant to = today.plusDays(1).atStartOfDay(zone).toInstant();
+
+        Map<Object, Object> cache = new ConcurrentHashMap<>();
+        when(generation.cached(any(), any()))
+                .thenAnswer(invocation -> cache.computeIfAbsent(invocation.getArgument(0), key -> invocation.<Supplier<?>>getArgument(1).get()));
+        when(generation.findMinimumBetween(any(), any(), any()))
+                .thenAnswer(invocation -> Optional.of(new PriceTick(LocalDateTime.now(), invocation.getArgument(0), BigDecimal.ONE)));
+        when(generation.findMaximumBetween(any(), any(), any()))
+                .thenAnswer(invocation -> Optional.of(new PriceTick(LocalDateTime.now(), invocation.getArgument(0), BigDecimal.TEN)));
+
+        Optional<String> first = currencyService.findCurrencyWithHighestNormalizedRangeForDate(today, zone, AsOf.LATEST);
+        Optional<String> second = currencyService.findCurrencyWithHighestNormalizedRangeForDate(today, ZoneId.of("Europe/Warsaw"), AsOf.LATEST);
+
+        assertEquals(first, second);
+        for (String currency : List.of("ETH", "BTC", "LTC")) {
+            verify(generation, times(1)).findMinimumBetween(currency, from, to);
+            verify(generation, times(1)).findMaximumBetween(currency, from, to);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class CorrelationMatrixCalculatorTest {
+
+    private static final double DELTA = 1e-9;
+
+    private static final int ROWS = 70;
+    private static final int COLUMNS = 1203;
+
+    private final double[] data = new Random(42).doubles(ROWS * COLUMNS, -0.05, 0.05).toArray();
+
+    @Test
+    void calculate_scalarKernel_matchesNaiveCalculation() {
+        assertMatchesNaiveCalculation(new ScalarCorrelationKernel());
+    }
+
+    @Test
+    void calculate_vectorKernel_matchesNaiveCalculation() {
+        assertMatchesNaiveCalculation(new VectorCorrelationKernel());
+    }
+
+    @Test
+    void calculate_constantRow_zeroVolatilityAndCorrelation() {
+        double[] rows = {1, 2, 3, 4, 5, 5, 5, 5, 5, 5};
+        CorrelationMatrixCalculator calculator = new CorrelationMatrixCalculator(new ScalarCorrelationKernel(), ForkJoinPool.commonPool());
+
+        CorrelationMatrix actual = calculator.calculate(rows, 2, 5);
+
+        assertEquals(0, actual.volatility()[1]);
+        assertEquals(1, actual.correlation()[0][0]);
+        assertEquals(0, actual.correlation()[0][1]);
+        assertEquals(0, actual.correlation()[1][1]);
+    }
+
+    @Test
+    void calculate_singleColumn_throwsException() {
+        CorrelationMatrixCalculator calculator = new CorrelationMatrixCalculator(new ScalarCorrelationKernel(), ForkJoinPool.commonPool());
+        assertThrows(IllegalArgumentException.class, () -> calculator.calculate(new double[2], 2, 1));
+    }
+
+    private void assertMatchesNaiveCalculation(CorrelationKernel kernel) {
+        CorrelationMatrixCalculator calculator = new CorrelationMatrixCalculator(kernel, ForkJoinPool.commonPool());
+
+        CorrelationMatrix actual = calculator.calculate(data.clone(), ROWS, COLUMNS);
+
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(standardDeviation(i), actual.volatility()[i], DELTA);
+            for (int j = 0; j < ROWS; j++) {
+                assertEquals(pearsonCorrelation(i, j), actual.correlation()[i][j], DELTA);
+            }
+        }
+    }
+
+    private double mean(int row) {
+        double sum = 0;
+        for (int k = 0; k < COLUMNS; k++) {
+            sum += data[row * COLUMNS + k];
+        }
+        return sum / COLUMNS;
+    }
+
+    private double standardDeviation(int row) {
+        double mean = mean(row);
+        double sum = 0;
+        for (int k = 0; k < COLUMNS; k++) {
+            double deviation = data[row * COLUMNS + k] - mean;
+            sum += deviation * deviation;
+        }
+        return Math.sqrt(sum / (COLUMNS - 1));
+    }
+
+    private double pearsonCorrelation(int first, int second) {
+        double firstMean = mean(first);
+        double secondMean = mean(second);
+        double covariance = 0;
+        double firstSquares = 0;
+        double secondSquares = 0;
+        for (int k = 0; k < COLUMNS; k++) {
+            double firstDeviation = data[first * COLUMNS + k] - firstMean;
+            double secondDeviation = data[second * COLUMNS + k] - secondMean;
+            covariance += firstDeviation * secondDeviation;
+            firstSquares += firstDeviation * firstDeviation;
+            secondSquares += secondDeviation * secondDeviation;
+        }
+        return covariance / Math.sqrt(firstSquares * secondSquares);
+    }
+}
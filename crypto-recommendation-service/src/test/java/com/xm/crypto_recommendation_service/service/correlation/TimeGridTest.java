@@ -0,0 +1,66 @@
+package com.xm.crypto_recommendation_service.service.correlation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.xm.crypto_recommendation_service.model.PriceTick;
+
+class TimeGridTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Test
+    void of_validRange_gridCoversRange() {
+        TimeGrid actual = TimeGrid.of(FROM, FROM.plusMinutes(270), Duration.ofHours(1));
+
+        assertEquals(FROM.toInstant(ZoneOffset.UTC).toEpochMilli(), actual.start());
+        assertEquals(3_600_000, actual.step());
+        assertEquals(5, actual.size());
+    }
+
+    @Test
+    void of_subMillisecondInterval_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.plusSeconds(1), Duration.ofNanos(500_000)));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.plusSeconds(1), Duration.ofNanos(1)));
+    }
+
+    @Test
+    void of_invalidRange_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.plusHours(2), Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.minusDays(1), Duration.ofHours(1)));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.plusDays(2), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> TimeGrid.of(FROM, FROM.plusDays(1), Duration.ofDays(365 * 1000)));
+    }
+
+    @Test
+    void align_gapsFilledForwardAndLeadingIntervalsBackward() {
+        TimeGrid timeGrid = TimeGrid.of(FROM, FROM.plusHours(5), Duration.ofHours(1));
+
+        double[] actual = timeGrid.align(List.of(
+                tick(FROM.plusMinutes(105), "11"),
+                tick(FROM.plusMinutes(90), "10"),
+                tick(FROM.plusMinutes(190), "12"),
+                tick(FROM.minusMinutes(1), "1"),
+                tick(FROM.plusHours(5), "99")));
+
+        assertArrayEquals(new double[]{11, 11, 11, 12, 12}, actual);
+    }
+
+    @Test
+    void align_noTicksInGrid_null() {
+        TimeGrid timeGrid = TimeGrid.of(FROM, FROM.plusHours(5), Duration.ofHours(1));
+
+        assertNull(timeGrid.align(List.of(tick(FROM.plusDays(1), "1"))));
+    }
+
+    private static PriceTick tick(LocalDateTime time, String price) {
+        return new PriceTick(time, "BTC", new BigDecimal(price));
+    }
+}